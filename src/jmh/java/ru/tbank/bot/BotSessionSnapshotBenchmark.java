@@ -0,0 +1,69 @@
+package ru.tbank.bot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.tbank.bot.entity.BotSurveySession;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BotSessionSnapshotBenchmark {
+    @Param({"1000000"})
+    private int sessions;
+
+    private Path path;
+
+    @Setup
+    public void setUp() throws IOException {
+        path = Files.createTempFile("sessions", ".snapshot");
+        List<BotSurveySession> written = new ArrayList<>(sessions);
+        for (long chatId = 1; chatId <= sessions; chatId++) {
+            BotSurveySession session = new BotSurveySession(chatId);
+            session.setUserId(chatId);
+            written.add(session);
+        }
+        snapshot().write(written);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public int restoreAll() {
+        BotSessionSnapshot snapshot = snapshot();
+        snapshot.load();
+        int restored = 0;
+        for (long chatId = 1; chatId <= sessions; chatId++) {
+            if (snapshot.restore(chatId) != null) {
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    private BotSessionSnapshot snapshot() {
+        return new BotSessionSnapshot(path.toString(), 30, null);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.tbank.bot;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.tbank.bot.entity.BotSurveySession;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryBotSessionStoreBenchmark {
+    @Param({"1000", "100000"})
+    private int sessions;
+
+    private InMemoryBotSessionStore sessionStore;
+
+    @Setup
+    public void setUp() {
+        sessionStore = new InMemoryBotSessionStore("benchmark", 30, sessions, 3600, 30, new BotSessionSnapshot("", 30, null),
+                Ticker.systemTicker(), new SimpleMeterRegistry());
+        for (long chatId = 0; chatId < sessions; chatId++) {
+            BotSurveySession session = new BotSurveySession(chatId);
+            session.setUserId(chatId);
+            sessionStore.put(session);
+        }
+        sessionStore.cleanUp();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionStore.shutdown();
+    }
+
+    @Benchmark
+    public BotSurveySession getSession() {
+        return sessionStore.get(ThreadLocalRandom.current().nextLong(sessions));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public BotSurveySession getSessionContended() {
+        return sessionStore.get(ThreadLocalRandom.current().nextLong(sessions));
+    }
+}
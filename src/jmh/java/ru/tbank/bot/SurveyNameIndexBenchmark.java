@@ -0,0 +1,77 @@
+package ru.tbank.bot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.jmh.InMemoryRepositories;
+import ru.tbank.repository.SurveyGroupRepository;
+import ru.tbank.service.SurveyGroupService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SurveyNameIndexBenchmark {
+    private static final String[] TOPICS = {"викторина", "история", "погода", "кино", "музыка", "спорт", "книги", "путешествия"};
+
+    @Param({"100", "10000"})
+    private int groups;
+
+    private SurveyNameIndex surveyNameIndex;
+    private String existingName;
+
+    @Setup
+    public void setUp() {
+        List<SurveyGroup> surveyGroups = new ArrayList<>(groups);
+        for (int i = 0; i < groups; i++) {
+            SurveyGroup surveyGroup = new SurveyGroup();
+            surveyGroup.setSurveyGroupId((long) i);
+            surveyGroup.setSurveyGroupName(TOPICS[i % TOPICS.length] + " " + i);
+            surveyGroups.add(surveyGroup);
+        }
+        SurveyGroupService surveyGroupService = new SurveyGroupService();
+        ReflectionTestUtils.setField(surveyGroupService, "surveyGroupRepository", InMemoryRepositories.of(SurveyGroupRepository.class,
+                Map.of("findAll", args -> surveyGroups)));
+        surveyNameIndex = new SurveyNameIndex(surveyGroupService, 3, 60);
+        existingName = surveyGroups.get(groups / 2).getSurveyGroupName();
+        surveyNameIndex.findName(existingName);
+    }
+
+    @TearDown
+    public void tearDown() {
+        surveyNameIndex.shutdown();
+    }
+
+    @Benchmark
+    public String findExact() {
+        return surveyNameIndex.findName(existingName);
+    }
+
+    @Benchmark
+    public List<String> suggestPrefix() {
+        return surveyNameIndex.suggest("путешес");
+    }
+
+    @Benchmark
+    public List<String> suggestTypo() {
+        return surveyNameIndex.suggest("пгоода 7");
+    }
+}
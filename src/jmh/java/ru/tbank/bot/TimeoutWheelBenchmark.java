@@ -0,0 +1,57 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeoutWheelBenchmark {
+    private static final Runnable NOOP = () -> {
+    };
+
+    @Param({"1000", "300000"})
+    private int pending;
+
+    private TimeoutWheel timeoutWheel;
+
+    @Setup
+    public void setUp() {
+        timeoutWheel = new TimeoutWheel(100, 8192, System::nanoTime, new SimpleMeterRegistry(), false);
+        for (int i = 0; i < pending; i++) {
+            timeoutWheel.schedule(randomDelayMillis(), NOOP);
+        }
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        return timeoutWheel.schedule(randomDelayMillis(), NOOP).cancel();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean scheduleAndCancelContended() {
+        return timeoutWheel.schedule(randomDelayMillis(), NOOP).cancel();
+    }
+
+    private static long randomDelayMillis() {
+        return TimeUnit.SECONDS.toMillis(ThreadLocalRandom.current().nextLong(5, 600));
+    }
+}
@@ -0,0 +1,31 @@
+package ru.tbank.bot.entity;
+
+import org.openjdk.jol.info.GraphLayout;
+import ru.tbank.jmh.SurveyFixtures;
+
+public class BotSessionFootprint {
+    public static void main(String[] args) {
+        int questions = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        SurveyFixtures fixtures = new SurveyFixtures(questions, true);
+        BotSurvey botSurvey = new BotSurvey.BotSurveyBuilder(SurveyFixtures.SURVEY_NAME, fixtures.getSurveyTypeService(),
+                fixtures.getSurveyGroupService(), fixtures.getSurveyService()).build();
+
+        Object[] botSessions = new Object[sessions];
+        for (int i = 0; i < sessions; i++) {
+            BotSurveySession session = new BotSurveySession(1_000_000L + i);
+            session.setUserId(5_000_000L + i);
+            session.setBotSurvey(botSurvey);
+            session.setCurrentQuestionIndex(i % questions);
+            botSessions[i] = session;
+        }
+
+        GraphLayout survey = GraphLayout.parseInstance(botSurvey);
+        GraphLayout all = GraphLayout.parseInstance(botSessions);
+        long sessionBytes = (all.totalSize() - survey.totalSize()) / sessions;
+        System.out.println(survey.toFootprint());
+        System.out.printf("Опрос: %d вопросов, %d объектов, %d байт%n", questions, survey.totalCount(), survey.totalSize());
+        System.out.printf("Сессия: %d байт без общего опроса%n", sessionBytes);
+        System.out.printf("%d сессий: %d байт%n", sessions, all.totalSize());
+    }
+}
@@ -0,0 +1,42 @@
+package ru.tbank.bot.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.tbank.jmh.SurveyFixtures;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BotSurveyBuilderBenchmark {
+    @Param({"5", "50", "200"})
+    private int questions;
+    @Param({"false", "true"})
+    private boolean quiz;
+
+    private SurveyFixtures fixtures;
+
+    @Setup
+    public void setUp() {
+        fixtures = new SurveyFixtures(questions, quiz);
+    }
+
+    @Benchmark
+    public BotSurvey buildSurvey() {
+        return new BotSurvey.BotSurveyBuilder(SurveyFixtures.SURVEY_NAME, fixtures.getSurveyTypeService(),
+                fixtures.getSurveyGroupService(), fixtures.getSurveyService()).build();
+    }
+}
@@ -0,0 +1,61 @@
+package ru.tbank.bot.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telegram.telegrambots.meta.api.methods.polls.SendPoll;
+import ru.tbank.jmh.SurveyFixtures;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendPollBenchmark {
+    @Param({"false", "true"})
+    private boolean quiz;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BotPoll botPoll;
+    private long chatId;
+
+    @Setup
+    public void setUp() {
+        botPoll = new BotPoll(100L, "Какой ответ правильный в этом вопросе?", SurveyFixtures.surveys(1).get(0).getAnswers(), false, quiz, 0);
+    }
+
+    @Benchmark
+    public String buildSendPoll() throws JsonProcessingException {
+        SendPoll sendPoll = new SendPoll();
+        sendPoll.setChatId(++chatId);
+        sendPoll.setQuestion(botPoll.getQuestion());
+        sendPoll.setOptions(botPoll.getOptions());
+        sendPoll.setIsAnonymous(false);
+        if (botPoll.isQuizFlg()) {
+            sendPoll.setType("quiz");
+            sendPoll.setCorrectOptionId(botPoll.getCorrectAnswer());
+        }
+        if (botPoll.isMultipleChoiceFlg()) {
+            sendPoll.setAllowMultipleAnswers(true);
+        }
+        return objectMapper.writeValueAsString(sendPoll);
+    }
+
+    @Benchmark
+    public String preparedSendPoll() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(botPoll.toSendPoll(++chatId));
+    }
+}
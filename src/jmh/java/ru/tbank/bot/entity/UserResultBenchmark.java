@@ -0,0 +1,55 @@
+package ru.tbank.bot.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.tbank.entity.Answer;
+import ru.tbank.jmh.SurveyFixtures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserResultBenchmark {
+    @Param({"1", "3"})
+    private int selectedOptions;
+
+    private BotPoll botPoll;
+    private PollTarget pollTarget;
+    private List<Integer> optionIds;
+
+    @Setup
+    public void setUp() {
+        List<Answer> answers = SurveyFixtures.surveys(1).get(0).getAnswers();
+        botPoll = new BotPoll(100L, "Вопрос", answers, true, false, 0);
+        pollTarget = new PollTarget(1L, 100L, answers.stream().mapToLong(Answer::getAnswerId).toArray());
+        optionIds = new ArrayList<>();
+        for (int i = 0; i < selectedOptions; i++) {
+            optionIds.add(i);
+        }
+    }
+
+    @Benchmark
+    public String botPollUserResult() {
+        return botPoll.getUserResult(optionIds);
+    }
+
+    @Benchmark
+    public String pollTargetUserResult() {
+        return pollTarget.getUserResult(optionIds);
+    }
+}
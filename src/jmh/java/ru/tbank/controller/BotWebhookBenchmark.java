@@ -0,0 +1,84 @@
+package ru.tbank.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import ru.tbank.bot.SurveyBot;
+import ru.tbank.bot.SurveyBots;
+import ru.tbank.exception.ErrorHandlingControllerAdvice;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BotWebhookBenchmark {
+    private static final String SECRET = "webhook-secret";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SurveyBot surveyBot;
+    private MockMvc mockMvc;
+    private List<String> recordedUpdates;
+    private String pollingResponse;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        surveyBot = mock(SurveyBot.class, withSettings().stubOnly());
+        when(surveyBot.getBotUsername()).thenReturn("survey_bot");
+        mockMvc = MockMvcBuilders.standaloneSetup(new BotWebhookController(new SurveyBots(List.of(surveyBot)), SECRET))
+                .setControllerAdvice(new ErrorHandlingControllerAdvice())
+                .build();
+        recordedUpdates = new ArrayList<>();
+        try (InputStream in = getClass().getResourceAsStream("/bot/recorded-updates.json")) {
+            for (JsonNode node : objectMapper.readTree(in)) {
+                recordedUpdates.add(objectMapper.writeValueAsString(node));
+            }
+        }
+        pollingResponse = "{\"ok\":true,\"result\":[" + String.join(",", recordedUpdates) + "]}";
+    }
+
+    @Benchmark
+    public int webhookUpdate() throws Exception {
+        String update = recordedUpdates.get(next++ % recordedUpdates.size());
+        return mockMvc.perform(post("/api/v1/bot/webhook")
+                        .header(BotWebhookController.SECRET_TOKEN_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(update))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int pollingBatch() throws Exception {
+        JsonNode result = objectMapper.readTree(pollingResponse).get("result");
+        List<Update> updates = objectMapper.convertValue(result, new TypeReference<List<Update>>() {
+        });
+        updates.forEach(surveyBot::onUpdateReceived);
+        return updates.size();
+    }
+}
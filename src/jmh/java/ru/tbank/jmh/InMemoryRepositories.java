@@ -0,0 +1,21 @@
+package ru.tbank.jmh;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+public final class InMemoryRepositories {
+    private InMemoryRepositories() {
+    }
+
+    public static <T> T of(Class<T> repositoryType, Map<String, Function<Object[], Object>> methods) {
+        return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> implementation = methods.get(method.getName());
+                    if (implementation == null) {
+                        throw new UnsupportedOperationException(repositoryType.getSimpleName() + "." + method.getName());
+                    }
+                    return implementation.apply(args);
+                }));
+    }
+}
@@ -0,0 +1,85 @@
+package ru.tbank.jmh;
+
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.tbank.entity.Answer;
+import ru.tbank.entity.Survey;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.entity.SurveyType;
+import ru.tbank.repository.SurveyGroupRepository;
+import ru.tbank.repository.SurveyRepository;
+import ru.tbank.repository.SurveyTypeRepository;
+import ru.tbank.service.SurveyGroupService;
+import ru.tbank.service.SurveyService;
+import ru.tbank.service.SurveyTypeService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class SurveyFixtures {
+    public static final String SURVEY_NAME = "бенчмарк";
+    private static final long SURVEY_GROUP_ID = 1L;
+    private static final long SURVEY_TYPE_ID = 1L;
+    private static final int ANSWERS_PER_QUESTION = 4;
+
+    private final SurveyTypeService surveyTypeService = new SurveyTypeService();
+    private final SurveyGroupService surveyGroupService = new SurveyGroupService();
+    private final SurveyService surveyService = new SurveyService();
+
+    public SurveyFixtures(int questions, boolean quiz) {
+        SurveyType surveyType = new SurveyType();
+        surveyType.setSurveyTypeId(SURVEY_TYPE_ID);
+        surveyType.setQuizFlg(quiz);
+        SurveyGroup surveyGroup = new SurveyGroup();
+        surveyGroup.setSurveyGroupId(SURVEY_GROUP_ID);
+        surveyGroup.setSurveyGroupName(SURVEY_NAME);
+        surveyGroup.setSurveyTypeId(SURVEY_TYPE_ID);
+        List<Survey> surveys = surveys(questions);
+
+        ReflectionTestUtils.setField(surveyTypeService, "surveyTypeRepository", InMemoryRepositories.of(SurveyTypeRepository.class,
+                Map.of("findBySurveyTypeId", args -> surveyType)));
+        ReflectionTestUtils.setField(surveyGroupService, "surveyGroupRepository", InMemoryRepositories.of(SurveyGroupRepository.class,
+                Map.of("findBySurveyGroupName", args -> surveyGroup)));
+        ReflectionTestUtils.setField(surveyService, "surveyRepository", InMemoryRepositories.of(SurveyRepository.class,
+                Map.of("findBySurveyGroupId", args -> surveys)));
+    }
+
+    public SurveyTypeService getSurveyTypeService() {
+        return surveyTypeService;
+    }
+
+    public SurveyGroupService getSurveyGroupService() {
+        return surveyGroupService;
+    }
+
+    public SurveyService getSurveyService() {
+        return surveyService;
+    }
+
+    public static List<Survey> surveys(int questions) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Survey> surveys = new ArrayList<>(questions);
+        for (int i = 0; i < questions; i++) {
+            Survey survey = new Survey();
+            survey.setSurveyId(100L + i);
+            survey.setSurveyQuestion("Вопрос номер " + i);
+            survey.setSurveyTypeId(SURVEY_TYPE_ID);
+            survey.setSurveyGroupId(SURVEY_GROUP_ID);
+            survey.setInsertDt(now);
+            List<Answer> answers = new ArrayList<>(ANSWERS_PER_QUESTION);
+            for (int j = 0; j < ANSWERS_PER_QUESTION; j++) {
+                Answer answer = new Answer();
+                answer.setAnswerId(1000L + (long) i * ANSWERS_PER_QUESTION + j);
+                answer.setAnswer("Ответ " + j);
+                answer.setCorrectFlg(j == 0);
+                answer.setInsertDt(now);
+                answer.setSurvey(survey);
+                answers.add(answer);
+            }
+            survey.setAnswers(answers);
+            surveys.add(survey);
+        }
+        return surveys;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.tbank.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.tbank.entity.Survey;
+import ru.tbank.jmh.SurveyFixtures;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SurveyServiceBenchmark {
+    @Param({"5", "50", "200"})
+    private int questions;
+
+    private SurveyService surveyService;
+
+    @Setup
+    public void setUp() {
+        surveyService = new SurveyFixtures(questions, false).getSurveyService();
+    }
+
+    @Benchmark
+    public List<Survey> getAllSurveysInGroupWithAnswers() {
+        return surveyService.getAllSurveysInGroupWithAnswers(1L);
+    }
+}
@@ -0,0 +1,250 @@
+package ru.tbank.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+import org.telegram.telegrambots.meta.api.objects.polls.Poll;
+import org.telegram.telegrambots.meta.api.objects.polls.PollAnswer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+// Заглушка Bot API в том же процессе: отдает getUpdates из очереди действий пользователей
+// и отвечает на каждый отправленный опрос за пользователя, поэтому бот работает через
+// настоящие long polling и HTTP-отправку
+class FakeBotApi {
+    static final String SURVEY_PROMPT = "Введите название опроса";
+    static final String SURVEY_FINISHED = "Вы ответили на все вопросы. Спасибо за участие!";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WireMockServer server;
+    private final String surveyName;
+    private final BlockingQueue<Update> pendingUpdates = new LinkedBlockingQueue<>();
+    private final Map<Long, Long> deliveredAt = new ConcurrentHashMap<>();
+    private final AtomicInteger nextUpdateId = new AtomicInteger(1);
+    private final AtomicInteger nextMessageId = new AtomicInteger(1);
+    private final AtomicLong deliveredUpdates = new AtomicLong();
+    private final Map<String, AtomicLong> callsByMethod = new ConcurrentHashMap<>();
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private CountDownLatch finishedUsers;
+
+    FakeBotApi(String surveyName) {
+        this.surveyName = surveyName;
+        this.server = new WireMockServer(options().dynamicPort().containerThreads(64).extensions(new BotApiTransformer()));
+        server.stubFor(any(anyUrl()).willReturn(ok()));
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop();
+    }
+
+    String getBaseUrl() {
+        return server.baseUrl() + "/bot";
+    }
+
+    void startUsers(int users) {
+        finishedUsers = new CountDownLatch(users);
+        for (long chatId = 1; chatId <= users; chatId++) {
+            enqueue(textUpdate(chatId, "/start"));
+        }
+    }
+
+    boolean awaitFinished(long timeout, TimeUnit unit) throws InterruptedException {
+        return finishedUsers.await(timeout, unit);
+    }
+
+    long getUnfinishedUsers() {
+        return finishedUsers.getCount();
+    }
+
+    long getDeliveredUpdates() {
+        return deliveredUpdates.get();
+    }
+
+    Map<String, Long> getCallsByMethod() {
+        Map<String, Long> calls = new TreeMap<>();
+        callsByMethod.forEach((method, count) -> calls.put(method, count.get()));
+        return calls;
+    }
+
+    LatencyRecorder getLatencies() {
+        return latencies;
+    }
+
+    private ResponseDefinition handle(ServeEvent serveEvent) {
+        String url = serveEvent.getRequest().getUrl();
+        String method = url.substring(url.lastIndexOf('/') + 1).toLowerCase();
+        try {
+            JsonNode request = objectMapper.readTree(serveEvent.getRequest().getBodyAsString());
+            if (!method.equals("getupdates")) {
+                callsByMethod.computeIfAbsent(method, m -> new AtomicLong()).incrementAndGet();
+            }
+            switch (method) {
+                case "getupdates":
+                    return json(getUpdates(request.path("limit").asInt(100)));
+                case "sendpoll":
+                    return json(sendPoll(request.path("chat_id").asLong(), request.path("question").asText()));
+                case "sendmessage":
+                    return json(sendMessage(request.path("chat_id").asLong(), request.path("text").asText()));
+                case "editmessagetext":
+                    return json(editMessageText(request.path("chat_id").asLong(), request.path("message_id").asInt(), request.path("text").asText()));
+                default:
+                    return json(true);
+            }
+        } catch (Exception e) {
+            return ResponseDefinitionBuilder.responseDefinition().withStatus(500).withBody(e.getMessage()).build();
+        }
+    }
+
+    private List<Update> getUpdates(int limit) throws InterruptedException {
+        List<Update> updates = new ArrayList<>();
+        Update first = pendingUpdates.poll(100, TimeUnit.MILLISECONDS);
+        if (first != null) {
+            updates.add(first);
+            pendingUpdates.drainTo(updates, Math.max(0, limit - 1));
+        }
+        long now = System.nanoTime();
+        for (Update update : updates) {
+            deliveredAt.put(chatId(update), now);
+        }
+        deliveredUpdates.addAndGet(updates.size());
+        return updates;
+    }
+
+    private Message sendPoll(long chatId, String question) {
+        Long delivered = deliveredAt.remove(chatId);
+        if (delivered != null) {
+            latencies.record(System.nanoTime() - delivered);
+        }
+        Message message = message(chatId);
+        Poll poll = new Poll();
+        poll.setId(chatId + "-" + message.getMessageId());
+        poll.setQuestion(question);
+        poll.setOptions(List.of());
+        message.setPoll(poll);
+        enqueue(pollAnswerUpdate(chatId, poll.getId()));
+        return message;
+    }
+
+    private Message sendMessage(long chatId, String text) {
+        if (text.startsWith(SURVEY_PROMPT)) {
+            enqueue(textUpdate(chatId, surveyName));
+        } else if (text.contains(SURVEY_FINISHED)) {
+            finishedUsers.countDown();
+        }
+        Message message = message(chatId);
+        message.setText(text);
+        return message;
+    }
+
+    private Message editMessageText(long chatId, int messageId, String text) {
+        if (text.contains(SURVEY_FINISHED)) {
+            finishedUsers.countDown();
+        }
+        Message message = message(chatId);
+        message.setMessageId(messageId);
+        message.setText(text);
+        return message;
+    }
+
+    private Message message(long chatId) {
+        Message message = new Message();
+        message.setMessageId(nextMessageId.getAndIncrement());
+        message.setDate((int) (System.currentTimeMillis() / 1000));
+        message.setChat(chat(chatId));
+        return message;
+    }
+
+    private void enqueue(Update update) {
+        update.setUpdateId(nextUpdateId.getAndIncrement());
+        pendingUpdates.add(update);
+    }
+
+    private ResponseDefinition json(Object result) throws Exception {
+        return ResponseDefinitionBuilder.responseDefinition()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(objectMapper.writeValueAsString(Map.of("ok", true, "result", result)))
+                .build();
+    }
+
+    private static long chatId(Update update) {
+        return update.hasMessage() ? update.getMessage().getChatId() : update.getPollAnswer().getUser().getId();
+    }
+
+    private static Update textUpdate(long chatId, String text) {
+        Message message = new Message();
+        message.setMessageId(0);
+        message.setDate((int) (System.currentTimeMillis() / 1000));
+        message.setChat(chat(chatId));
+        message.setFrom(user(chatId));
+        message.setText(text);
+        Update update = new Update();
+        update.setMessage(message);
+        return update;
+    }
+
+    private static Update pollAnswerUpdate(long chatId, String pollId) {
+        PollAnswer pollAnswer = new PollAnswer();
+        pollAnswer.setPollId(pollId);
+        pollAnswer.setUser(user(chatId));
+        pollAnswer.setOptionIds(List.of(0));
+        Update update = new Update();
+        update.setPollAnswer(pollAnswer);
+        return update;
+    }
+
+    private static Chat chat(long chatId) {
+        Chat chat = new Chat();
+        chat.setId(chatId);
+        chat.setType("private");
+        chat.setFirstName("Пользователь " + chatId);
+        return chat;
+    }
+
+    private static User user(long chatId) {
+        User user = new User();
+        user.setId(chatId);
+        user.setFirstName("Пользователь " + chatId);
+        user.setIsBot(false);
+        return user;
+    }
+
+    private class BotApiTransformer implements ResponseDefinitionTransformerV2 {
+        @Override
+        public String getName() {
+            return "fake-bot-api";
+        }
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            return handle(serveEvent);
+        }
+    }
+}
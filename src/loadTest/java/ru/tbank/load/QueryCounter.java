@@ -0,0 +1,50 @@
+package ru.tbank.load;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+class QueryCounter implements BeanPostProcessor {
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    private final AtomicLong statements = new AtomicLong();
+
+    long getStatements() {
+        return statements.get();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource) {
+            return proxy(DataSource.class, bean, (result, methodName) ->
+                    "getConnection".equals(methodName) ? proxy(Connection.class, result, this::countStatement) : result);
+        }
+        return bean;
+    }
+
+    private Object countStatement(Object result, String methodName) {
+        if (STATEMENT_METHODS.contains(methodName)) {
+            statements.incrementAndGet();
+        }
+        return result;
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, ResultHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            try {
+                return handler.handle(method.invoke(target, args), method.getName());
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }));
+    }
+
+    private interface ResultHandler {
+        Object handle(Object result, String methodName);
+    }
+}
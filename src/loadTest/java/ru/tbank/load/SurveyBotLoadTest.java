@@ -0,0 +1,156 @@
+package ru.tbank.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.tbank.bot.SurveyGroupPages;
+import ru.tbank.bot.SurveyNameIndex;
+import ru.tbank.service.ResultWriteBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SurveyBotLoadTest {
+    private static final String SURVEY_NAME = "нагрузка";
+    private static final int USERS = Integer.getInteger("load.users", 2000);
+    private static final int QUESTIONS = Integer.getInteger("load.questions", 5);
+    private static final long TIMEOUT_SECONDS = Long.getLong("load.timeout-seconds", 600);
+    private static final FakeBotApi fakeBotApi = new FakeBotApi(SURVEY_NAME);
+
+    @Container
+    public static PostgreSQLContainer<?> pgDB = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("survey_load")
+            .withUsername("pguser_load")
+            .withPassword("pgpwd_load");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private QueryCounter queryCounter;
+    @Autowired
+    private ResultWriteBuffer resultWriteBuffer;
+    @Autowired
+    private SurveyNameIndex surveyNameIndex;
+    @Autowired
+    private SurveyGroupPages surveyGroupPages;
+
+    @DynamicPropertySource
+    static void setDynamicProperties(DynamicPropertyRegistry registry) {
+        fakeBotApi.start();
+        registry.add("spring.datasource.url", pgDB::getJdbcUrl);
+        registry.add("spring.datasource.username", pgDB::getUsername);
+        registry.add("spring.datasource.password", pgDB::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("telegram-bot.mode", () -> "polling");
+        registry.add("telegram-bot.api-url", fakeBotApi::getBaseUrl);
+        registry.add("telegram-bot.sessions.snapshot.path", () -> "");
+        registry.add("telegram-bot.outbound.global-rate", () -> Integer.getInteger("load.global-rate", 100000));
+        registry.add("telegram-bot.outbound.global-burst", () -> Integer.getInteger("load.global-rate", 100000));
+        registry.add("telegram-bot.outbound.per-chat-rate", () -> 1000);
+        registry.add("telegram-bot.outbound.per-chat-burst", () -> 1000);
+    }
+
+    @AfterAll
+    static void stopFakeBotApi() {
+        fakeBotApi.stop();
+    }
+
+    @Test
+    void testSurveyThroughput() throws Exception {
+        seedSurvey();
+        surveyNameIndex.warmUp();
+        surveyGroupPages.warmUp();
+        long statementsBefore = queryCounter.getStatements();
+        long start = System.nanoTime();
+
+        fakeBotApi.startUsers(USERS);
+        boolean finished = fakeBotApi.awaitFinished(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - start;
+        resultWriteBuffer.flush();
+
+        long updates = fakeBotApi.getDeliveredUpdates();
+        long statements = queryCounter.getStatements() - statementsBefore;
+        LatencyRecorder latencies = fakeBotApi.getLatencies();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("version", System.getProperty("load.version", "dev"));
+        report.put("date", LocalDateTime.now().withNano(0));
+        report.put("users", USERS);
+        report.put("questions", QUESTIONS);
+        report.put("finished_users", USERS - fakeBotApi.getUnfinishedUsers());
+        report.put("elapsed_ms", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        report.put("updates", updates);
+        report.put("updates_per_second", String.format("%.1f", updates / (elapsedNanos / 1e9)));
+        report.put("latency_samples", latencies.count());
+        report.put("latency_p50_ms", String.format("%.2f", latencies.percentileMillis(50)));
+        report.put("latency_p95_ms", String.format("%.2f", latencies.percentileMillis(95)));
+        report.put("latency_p99_ms", String.format("%.2f", latencies.percentileMillis(99)));
+        report.put("latency_max_ms", String.format("%.2f", latencies.percentileMillis(100)));
+        report.put("db_statements", statements);
+        report.put("db_statements_per_update", String.format("%.2f", updates == 0 ? 0 : statements / (double) updates));
+        long finishedUsers = Math.max(1, USERS - fakeBotApi.getUnfinishedUsers());
+        long apiCalls = 0;
+        for (Map.Entry<String, Long> calls : fakeBotApi.getCallsByMethod().entrySet()) {
+            report.put("api_calls_per_session_" + calls.getKey(), String.format("%.2f", calls.getValue() / (double) finishedUsers));
+            apiCalls += calls.getValue();
+        }
+        report.put("api_calls_per_session", String.format("%.2f", apiCalls / (double) finishedUsers));
+        writeReport(report);
+
+        Assertions.assertTrue(finished, "Не все пользователи прошли опрос за " + TIMEOUT_SECONDS + " с");
+        Assertions.assertEquals((long) USERS * QUESTIONS,
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM survey.results", Long.class));
+    }
+
+    private void seedSurvey() {
+        Long surveyTypeId = jdbcTemplate.queryForObject(
+                "SELECT survey_type_id FROM survey.survey_types WHERE survey_type_name = 'Обычный'", Long.class);
+        Long surveyGroupId = jdbcTemplate.queryForObject(
+                "INSERT INTO survey.survey_groups (survey_group_name, survey_type_id) VALUES (?, ?) RETURNING survey_group_id",
+                Long.class, SURVEY_NAME, surveyTypeId);
+        for (int i = 0; i < QUESTIONS; i++) {
+            Long surveyId = jdbcTemplate.queryForObject(
+                    "INSERT INTO survey.surveys (survey_question, survey_type_id, survey_group_id) VALUES (?, ?, ?) RETURNING survey_id",
+                    Long.class, "Вопрос " + i, surveyTypeId, surveyGroupId);
+            jdbcTemplate.update("INSERT INTO survey.answers (survey_id, answer, correct_flg) VALUES (?, 'Да', false), (?, 'Нет', false)",
+                    surveyId, surveyId);
+        }
+    }
+
+    private static void writeReport(Map<String, Object> report) throws IOException {
+        String content = report.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(System.lineSeparator(), "", System.lineSeparator()));
+        System.out.print(content);
+        Path reportDir = Paths.get(System.getProperty("load.report-dir", "build/reports/load"));
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("survey-bot-" + report.get("version") + ".properties"), content, StandardCharsets.UTF_8);
+    }
+
+    @TestConfiguration
+    static class LoadTestConfiguration {
+        @Bean
+        static QueryCounter queryCounter() {
+            return new QueryCounter();
+        }
+    }
+}
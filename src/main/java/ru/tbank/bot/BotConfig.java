@@ -1,15 +1,62 @@
 package ru.tbank.bot;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.util.StringUtils;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
 @Configuration
+@EnableConfigurationProperties(BotProperties.class)
 public class BotConfig {
+    public static final String POLLING_MODE = "polling";
+    public static final String WEBHOOK_MODE = "webhook";
+
+    @Bean
+    SurveyBots surveyBots(BotProperties botProperties, SurveyBotFactory surveyBotFactory) throws TelegramApiException {
+        List<BotProperties.Bot> definitions = botProperties.getDefinitions();
+        List<SurveyBot> bots = new ArrayList<>();
+        for (BotProperties.Bot definition : definitions) {
+            bots.add(surveyBotFactory.create(definition, definitions.size() > 1));
+        }
+        return new SurveyBots(bots);
+    }
+
     @Bean
-    TelegramBotsApi telegramBotsApi() throws TelegramApiException {
-        return new TelegramBotsApi(DefaultBotSession.class);
+    TelegramBotsApi telegramBotsApi(SurveyBots surveyBots,
+                                    @Value("${telegram-bot.mode:" + POLLING_MODE + "}") String mode,
+                                    @Value("${telegram-bot.webhook.url:}") String webhookUrl,
+                                    @Value("${telegram-bot.webhook.secret-token:}") String webhookSecretToken) throws TelegramApiException {
+        TelegramBotsApi telegramBotsApi = new TelegramBotsApi(DefaultBotSession.class);
+        if (WEBHOOK_MODE.equals(mode) && !StringUtils.hasText(webhookUrl)) {
+            throw new IllegalArgumentException("Для режима webhook должен быть указан telegram-bot.webhook.url");
+        }
+        if (WEBHOOK_MODE.equals(mode) && !StringUtils.hasText(webhookSecretToken)) {
+            throw new IllegalArgumentException("Для режима webhook должен быть указан telegram-bot.webhook.secret-token");
+        }
+        for (SurveyBot surveyBot : surveyBots.getAll()) {
+            if (WEBHOOK_MODE.equals(mode)) {
+                String url = surveyBots.size() > 1 ? webhookUrl + "/" + surveyBot.getBotUsername() : webhookUrl;
+                SetWebhook setWebhook = SetWebhook.builder()
+                        .url(url)
+                        .secretToken(webhookSecretToken)
+                        .build();
+                surveyBot.execute(setWebhook);
+                log.info("Бот {} получает обновления через вебхук {}", surveyBot.getBotUsername(), url);
+            } else {
+                telegramBotsApi.registerBot(surveyBot);
+                log.info("Бот {} получает обновления через long polling", surveyBot.getBotUsername());
+            }
+        }
+        return telegramBotsApi;
     }
 }
@@ -0,0 +1,43 @@
+package ru.tbank.bot;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "telegram-bot")
+public class BotProperties {
+    private String name;
+    private String token;
+    private List<Bot> bots = new ArrayList<>();
+
+    public List<Bot> getDefinitions() {
+        if (!bots.isEmpty()) {
+            return bots;
+        }
+        if (!StringUtils.hasText(name) || !StringUtils.hasText(token)) {
+            throw new IllegalArgumentException("Должны быть указаны telegram-bot.bots или telegram-bot.name и telegram-bot.token");
+        }
+        return List.of(new Bot(name, token));
+    }
+
+    @Getter
+    @Setter
+    public static class Bot {
+        private String name;
+        private String token;
+
+        public Bot() {
+        }
+
+        public Bot(String name, String token) {
+            this.name = name;
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package ru.tbank.bot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.bot.entity.BotSurveySession;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class BotSessionSnapshot {
+    private static final int MAGIC_V1 = 0x42535331;
+    private static final int MAGIC = 0x42535332;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final long NONE = -1;
+
+    private final Path path;
+    private final long idleTtlMillis;
+    private final BotSurveyCache botSurveyCache;
+    private volatile Records restored;
+
+    public BotSessionSnapshot(String path, long idleTtlMinutes, BotSurveyCache botSurveyCache) {
+        this.path = StringUtils.hasText(path) ? Paths.get(path) : null;
+        this.idleTtlMillis = TimeUnit.MINUTES.toMillis(idleTtlMinutes);
+        this.botSurveyCache = botSurveyCache;
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    public BotSurveySession restore(long chatId) {
+        Records records = getRestored();
+        int position = records.consume(chatId);
+        if (position < 0) {
+            return null;
+        }
+        BotSurveySession session = new BotSurveySession(chatId);
+        session.setUserId(records.userIds[position] == NONE ? null : records.userIds[position]);
+        if (records.surveyGroupIds[position] != NONE) {
+            try {
+                session.setBotSurvey(botSurveyCache.getSurvey(records.surveyGroupIds[position]));
+                session.setCurrentQuestionIndex(records.questionIndexes[position]);
+                session.setProgressMessageId(records.progressMessageIds[position]);
+            } catch (Exception e) {
+                log.warn("Не удалось восстановить опрос сессии чата {}: {}", chatId, e.getMessage());
+                return null;
+            }
+        }
+        return session;
+    }
+
+    public void load() {
+        getRestored();
+    }
+
+    public void discard(long chatId) {
+        getRestored().consume(chatId);
+    }
+
+    public synchronized void write(Collection<BotSurveySession> sessions) {
+        if (path == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        List<BotSurveySession> liveSessions = new ArrayList<>(sessions);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            int written = 0;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeInt(0);
+                for (BotSurveySession session : liveSessions) {
+                    BotSurvey botSurvey = session.getBotSurvey();
+                    writeRecord(out, session.getChatId(), session.getUserId() == null ? NONE : session.getUserId(),
+                            botSurvey == null ? NONE : botSurvey.getSurveyGroupId(), session.getCurrentQuestionIndex(), session.getProgressMessageId(), now);
+                    written++;
+                }
+                written += getRestored().writePending(out, now - idleTtlMillis);
+                out.flush();
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, written), Integer.BYTES);
+                channel.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Снимок сессий бота сохранен: {} записей за {} мс", written, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            log.error("Ошибка сохранения снимка сессий бота: {}", e.getMessage());
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, long chatId, long userId, long surveyGroupId, int questionIndex, int progressMessageId,
+                                    long savedAt) throws IOException {
+        out.writeLong(chatId);
+        out.writeLong(userId);
+        out.writeLong(surveyGroupId);
+        out.writeInt(questionIndex);
+        out.writeInt(progressMessageId);
+        out.writeLong(savedAt);
+    }
+
+    private Records getRestored() {
+        Records records = restored;
+        if (records == null) {
+            synchronized (this) {
+                records = restored;
+                if (records == null) {
+                    records = read();
+                    restored = records;
+                }
+            }
+        }
+        return records;
+    }
+
+    private Records read() {
+        if (path == null || !Files.exists(path)) {
+            return new Records(0);
+        }
+        long start = System.nanoTime();
+        long expiredBefore = System.currentTimeMillis() - idleTtlMillis;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            int magic = in.readInt();
+            if (magic != MAGIC && magic != MAGIC_V1) {
+                log.warn("Файл снимка сессий бота {} имеет неизвестный формат", path);
+                return new Records(0);
+            }
+            int count = in.readInt();
+            Records records = new Records(count);
+            for (int i = 0; i < count; i++) {
+                long chatId = in.readLong();
+                long userId = in.readLong();
+                long surveyGroupId = in.readLong();
+                int questionIndex = in.readInt();
+                int progressMessageId = magic == MAGIC ? in.readInt() : 0;
+                long savedAt = in.readLong();
+                if (savedAt >= expiredBefore) {
+                    records.add(chatId, userId, surveyGroupId, questionIndex, progressMessageId, savedAt);
+                }
+            }
+            log.info("Снимок сессий бота загружен: {} записей за {} мс", records.size, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return records;
+        } catch (IOException e) {
+            log.error("Ошибка чтения снимка сессий бота: {}", e.getMessage());
+            return new Records(0);
+        }
+    }
+
+    private static class Records {
+        private final long[] chatIds;
+        private final long[] userIds;
+        private final long[] surveyGroupIds;
+        private final int[] questionIndexes;
+        private final int[] progressMessageIds;
+        private final long[] savedAts;
+        private final int[] slots;
+        private final BitSet consumed;
+        private int size;
+
+        private Records(int capacity) {
+            chatIds = new long[capacity];
+            userIds = new long[capacity];
+            surveyGroupIds = new long[capacity];
+            questionIndexes = new int[capacity];
+            progressMessageIds = new int[capacity];
+            savedAts = new long[capacity];
+            slots = new int[Integer.highestOneBit(Math.max(capacity, 1)) << 2];
+            consumed = new BitSet(capacity);
+        }
+
+        private void add(long chatId, long userId, long surveyGroupId, int questionIndex, int progressMessageId, long savedAt) {
+            int slot = slot(chatId);
+            while (slots[slot] != 0) {
+                if (chatIds[slots[slot] - 1] == chatId) {
+                    break;
+                }
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            int position = slots[slot] != 0 ? slots[slot] - 1 : size++;
+            chatIds[position] = chatId;
+            userIds[position] = userId;
+            surveyGroupIds[position] = surveyGroupId;
+            questionIndexes[position] = questionIndex;
+            progressMessageIds[position] = progressMessageId;
+            savedAts[position] = savedAt;
+            slots[slot] = position + 1;
+        }
+
+        private int consume(long chatId) {
+            int slot = slot(chatId);
+            while (slots[slot] != 0) {
+                int position = slots[slot] - 1;
+                if (chatIds[position] == chatId) {
+                    synchronized (consumed) {
+                        if (consumed.get(position)) {
+                            return -1;
+                        }
+                        consumed.set(position);
+                    }
+                    return position;
+                }
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            return -1;
+        }
+
+        private int writePending(DataOutputStream out, long expiredBefore) throws IOException {
+            int count = 0;
+            for (int position = 0; position < size; position++) {
+                boolean pending;
+                synchronized (consumed) {
+                    pending = !consumed.get(position);
+                }
+                if (pending && savedAts[position] >= expiredBefore) {
+                    writeRecord(out, chatIds[position], userIds[position], surveyGroupIds[position], questionIndexes[position],
+                            progressMessageIds[position], savedAts[position]);
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private int slot(long chatId) {
+            return Long.hashCode(chatId * 0x9E3779B97F4A7C15L) & (slots.length - 1);
+        }
+    }
+}
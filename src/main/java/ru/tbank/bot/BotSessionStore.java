@@ -0,0 +1,23 @@
+package ru.tbank.bot;
+
+import ru.tbank.bot.entity.BotSurveySession;
+
+public interface BotSessionStore {
+    BotSurveySession get(long chatId);
+
+    boolean isActive(long chatId);
+
+    void put(BotSurveySession session);
+
+    void save(BotSurveySession session);
+
+    void remove(long chatId);
+
+    boolean consumeExpired(long chatId);
+
+    long size();
+
+    void cleanUp();
+
+    void shutdown();
+}
@@ -0,0 +1,113 @@
+package ru.tbank.bot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.event.SurveyChangedEvent;
+import ru.tbank.event.SurveyGroupChangedEvent;
+import ru.tbank.service.SurveyGroupService;
+import ru.tbank.service.SurveyService;
+import ru.tbank.service.SurveyTypeService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+@Slf4j
+@Component
+public class BotSurveyCache {
+    private final SurveyTypeService surveyTypeService;
+    private final SurveyGroupService surveyGroupService;
+    private final SurveyService surveyService;
+    private final Cache<Long, BotSurvey> surveys;
+    private final Cache<String, Long> surveyGroupIds;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public BotSurveyCache(SurveyTypeService surveyTypeService, SurveyGroupService surveyGroupService, SurveyService surveyService,
+                          @Value("${telegram-bot.survey-cache.max-size:1000}") long maxSize,
+                          @Value("${telegram-bot.survey-cache.ttl-minutes:30}") long ttlMinutes,
+                          MeterRegistry meterRegistry) {
+        this.surveyTypeService = surveyTypeService;
+        this.surveyGroupService = surveyGroupService;
+        this.surveyService = surveyService;
+        this.surveys = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        this.surveyGroupIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, surveys, "bot.survey");
+    }
+
+    public BotSurvey getSurvey(String surveyName) {
+        String key = surveyName.toLowerCase();
+        Long surveyGroupId = surveyGroupIds.getIfPresent(key);
+        if (surveyGroupId != null) {
+            return getSurvey(surveyGroupId);
+        }
+        long invalidationsBeforeLoad = invalidations.get();
+        SurveyGroup surveyGroup = surveyGroupService.getSurveyGroupByName(key);
+        if (invalidationsBeforeLoad == invalidations.get()) {
+            surveyGroupIds.put(key, surveyGroup.getSurveyGroupId());
+        }
+        return getSurvey(surveyGroup.getSurveyGroupId(), id -> buildSurvey(surveyGroup));
+    }
+
+    public BotSurvey getSurvey(long surveyGroupId) {
+        return getSurvey(surveyGroupId, id -> buildSurvey(surveyGroupService.getSurveyGroupById(id)));
+    }
+
+    public CacheStats getStats() {
+        return surveys.stats();
+    }
+
+    @EventListener
+    public void onSurveyGroupChanged(SurveyGroupChangedEvent event) {
+        Long surveyGroupId = event.getSurveyGroup().getSurveyGroupId();
+        invalidate(botSurvey -> surveyGroupId.equals(botSurvey.getSurveyGroupId()));
+        surveyGroupIds.asMap().values().removeIf(surveyGroupId::equals);
+    }
+
+    @EventListener
+    public void onSurveyChanged(SurveyChangedEvent event) {
+        Long surveyGroupId = event.getSurveyGroupId();
+        Long surveyId = event.getSurveyId();
+        invalidate(botSurvey -> (surveyGroupId != null && surveyGroupId.equals(botSurvey.getSurveyGroupId()))
+                || (surveyId != null && botSurvey.containsSurvey(surveyId)));
+    }
+
+    private void invalidate(Predicate<BotSurvey> predicate) {
+        invalidations.incrementAndGet();
+        surveys.asMap().values().removeIf(predicate);
+    }
+
+    private BotSurvey getSurvey(long surveyGroupId, Function<Long, BotSurvey> loader) {
+        while (true) {
+            long invalidationsBeforeLoad = invalidations.get();
+            BotSurvey botSurvey = surveys.get(surveyGroupId, loader);
+            if (invalidationsBeforeLoad == invalidations.get()) {
+                return botSurvey;
+            }
+            surveys.asMap().remove(surveyGroupId, botSurvey);
+        }
+    }
+
+    private BotSurvey buildSurvey(SurveyGroup surveyGroup) {
+        long start = System.nanoTime();
+        BotSurvey botSurvey = new BotSurvey.BotSurveyBuilder(surveyGroup, surveyTypeService, surveyService).build();
+        log.info("Опрос {} загружен в кэш за {} мс", surveyGroup.getSurveyGroupName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return botSurvey;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.tbank.bot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import ru.tbank.dto.UserCreateDTO;
+import ru.tbank.entity.User;
+import ru.tbank.event.UserDeletedEvent;
+import ru.tbank.service.UserDetailsServiceImpl;
+
+@Component
+public class BotUserCache {
+    private final UserDetailsServiceImpl userService;
+    private final Cache<Long, Long> userIdsByChatId;
+
+    public BotUserCache(UserDetailsServiceImpl userService,
+                        @Value("${telegram-bot.user-cache.max-size:100000}") long maxSize,
+                        MeterRegistry meterRegistry) {
+        this.userService = userService;
+        this.userIdsByChatId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByChatId, "bot.tg-user");
+    }
+
+    public Long getUserId(Chat chat) {
+        return userIdsByChatId.get(chat.getId(), chatId -> userService.getOrCreateTgUserId(
+                new UserCreateDTO(chatId.toString(), chat.getFirstName(), chat.getLastName(), chat.getUserName())));
+    }
+
+    public CacheStats getStats() {
+        return userIdsByChatId.stats();
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        User user = event.getUser();
+        if (user.isTgFlg()) {
+            userIdsByChatId.asMap().values().remove(user.getUserId());
+        }
+    }
+}
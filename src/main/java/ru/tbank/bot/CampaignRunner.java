@@ -0,0 +1,222 @@
+package ru.tbank.bot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.dto.CampaignProgressDTO;
+import ru.tbank.entity.Campaign;
+import ru.tbank.repository.TgRecipient;
+import ru.tbank.service.CampaignService;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class CampaignRunner {
+    private final SurveyBots surveyBots;
+    private final CampaignService campaignService;
+    private final BotSurveyCache botSurveyCache;
+    private final int pageSize;
+    private final int maxInFlight;
+    private final TokenBucket rateLimit;
+    private final ExecutorService executor;
+    private final Map<Long, CampaignProgress> running = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    public CampaignRunner(SurveyBots surveyBots, CampaignService campaignService, BotSurveyCache botSurveyCache,
+                          @Value("${telegram-bot.campaign.rate:10}") double rate,
+                          @Value("${telegram-bot.campaign.burst:10}") int burst,
+                          @Value("${telegram-bot.campaign.max-in-flight:100}") int maxInFlight,
+                          @Value("${telegram-bot.campaign.page-size:500}") int pageSize,
+                          @Value("${telegram-bot.campaign.threads:2}") int threads) {
+        this.surveyBots = surveyBots;
+        this.campaignService = campaignService;
+        this.botSurveyCache = botSurveyCache;
+        this.pageSize = pageSize;
+        this.maxInFlight = maxInFlight;
+        this.rateLimit = new TokenBucket(rate, burst);
+        this.executor = Executors.newFixedThreadPool(threads, r -> new Thread(r, "bot-campaign"));
+    }
+
+    public CampaignProgressDTO start(Campaign campaign) {
+        CampaignProgress progress = new CampaignProgress(campaign);
+        if (running.putIfAbsent(campaign.getCampaignId(), progress) == null) {
+            log.info("Запуск рассылки {}, получателей: {}", campaign.getCampaignId(), campaign.getTotalCount());
+            executor.execute(() -> run(progress));
+        }
+        return getProgress(campaign.getCampaignId());
+    }
+
+    public CampaignProgressDTO stop(Long campaignId) {
+        CampaignProgress progress = running.get(campaignId);
+        if (progress != null) {
+            progress.stopped = true;
+            return progress.toDTO();
+        }
+        Campaign campaign = campaignService.getCampaignById(campaignId);
+        if (campaign.getStatus() == Campaign.CampaignStatus.RUNNING) {
+            campaign.setStatus(Campaign.CampaignStatus.STOPPED);
+            campaignService.saveCampaign(campaign);
+        }
+        return toDTO(campaign);
+    }
+
+    public CampaignProgressDTO resume(Long campaignId) {
+        if (running.containsKey(campaignId)) {
+            return getProgress(campaignId);
+        }
+        Campaign campaign = campaignService.getCampaignById(campaignId);
+        if (campaign.getStatus() == Campaign.CampaignStatus.FINISHED) {
+            throw new IllegalArgumentException("Рассылка уже завершена");
+        }
+        campaign.setStatus(Campaign.CampaignStatus.RUNNING);
+        return start(campaignService.saveCampaign(campaign));
+    }
+
+    public CampaignProgressDTO getProgress(Long campaignId) {
+        CampaignProgress progress = running.get(campaignId);
+        return progress != null ? progress.toDTO() : toDTO(campaignService.getCampaignById(campaignId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningCampaigns() {
+        try {
+            campaignService.getRunningCampaigns().forEach(this::start);
+        } catch (Exception e) {
+            log.error("Не удалось возобновить рассылки: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        shuttingDown = true;
+        running.values().forEach(progress -> progress.stopped = true);
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void run(CampaignProgress progress) {
+        Campaign campaign = progress.campaign;
+        try {
+            BotSurvey botSurvey = botSurveyCache.getSurvey(campaign.getSurveyGroupId());
+            SurveyBot surveyBot = surveyBots.get(campaign.getBotName());
+            while (!progress.stopped) {
+                List<TgRecipient> recipients = campaignService.getNextRecipients(campaign, pageSize);
+                if (recipients.isEmpty()) {
+                    campaign.setStatus(Campaign.CampaignStatus.FINISHED);
+                    break;
+                }
+                long lastUserId = campaign.getLastUserId();
+                for (TgRecipient recipient : recipients) {
+                    if (progress.stopped) {
+                        break;
+                    }
+                    push(progress, surveyBot, recipient, botSurvey);
+                    lastUserId = recipient.getUserId();
+                }
+                progress.awaitInFlight();
+                campaign.setLastUserId(lastUserId);
+                checkpoint(progress);
+            }
+            if (progress.stopped && !shuttingDown) {
+                campaign.setStatus(Campaign.CampaignStatus.STOPPED);
+            }
+            progress.awaitInFlight();
+            checkpoint(progress);
+            log.info("Рассылка {} остановлена со статусом {}: отправлено {}, ошибок {}, пропущено {}", campaign.getCampaignId(),
+                    campaign.getStatus(), progress.sent.get(), progress.failed.get(), progress.skipped.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Ошибка выполнения рассылки {}: {}", campaign.getCampaignId(), e.getMessage());
+        } finally {
+            running.remove(campaign.getCampaignId());
+        }
+    }
+
+    private void push(CampaignProgress progress, SurveyBot surveyBot, TgRecipient recipient, BotSurvey botSurvey) throws InterruptedException {
+        Long chatId = parseChatId(recipient.getUsername());
+        if (chatId == null) {
+            progress.skipped.incrementAndGet();
+            return;
+        }
+        progress.inFlight.acquire();
+        acquireRate();
+        surveyBot.pushSurvey(chatId, recipient.getUserId(), botSurvey).whenComplete((message, e) -> {
+            if (e != null) {
+                progress.failed.incrementAndGet();
+            } else if (message == null) {
+                progress.skipped.incrementAndGet();
+            } else {
+                progress.sent.incrementAndGet();
+            }
+            progress.inFlight.release();
+        });
+    }
+
+    private void acquireRate() throws InterruptedException {
+        synchronized (rateLimit) {
+            long waitNanos;
+            while ((waitNanos = rateLimit.nanosUntilToken()) > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            rateLimit.consume();
+        }
+    }
+
+    private void checkpoint(CampaignProgress progress) {
+        Campaign campaign = progress.campaign;
+        campaign.setSentCount(progress.sent.get());
+        campaign.setFailedCount(progress.failed.get());
+        campaign.setSkippedCount(progress.skipped.get());
+        campaignService.saveCampaign(campaign);
+    }
+
+    private static Long parseChatId(String username) {
+        try {
+            return Long.valueOf(username);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static CampaignProgressDTO toDTO(Campaign campaign) {
+        return new CampaignProgressDTO(campaign, campaign.getSentCount(), campaign.getFailedCount(), campaign.getSkippedCount());
+    }
+
+    private class CampaignProgress {
+        private final Campaign campaign;
+        private final AtomicLong sent;
+        private final AtomicLong failed;
+        private final AtomicLong skipped;
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private volatile boolean stopped;
+
+        private CampaignProgress(Campaign campaign) {
+            this.campaign = campaign;
+            this.sent = new AtomicLong(campaign.getSentCount());
+            this.failed = new AtomicLong(campaign.getFailedCount());
+            this.skipped = new AtomicLong(campaign.getSkippedCount());
+        }
+
+        private void awaitInFlight() throws InterruptedException {
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+
+        private CampaignProgressDTO toDTO() {
+            return new CampaignProgressDTO(campaign, sent.get(), failed.get(), skipped.get());
+        }
+    }
+}
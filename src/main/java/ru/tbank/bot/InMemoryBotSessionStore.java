@@ -0,0 +1,151 @@
+package ru.tbank.bot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import ru.tbank.bot.entity.BotPoll;
+import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.bot.entity.BotSurveySession;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class InMemoryBotSessionStore implements BotSessionStore {
+    private static final long SESSION_BYTES = 144;
+    private static final long SURVEY_BYTES = 96;
+    private static final long POLL_BYTES = 256;
+    private static final long OPTION_BYTES = 12;
+
+    private final Cache<Long, BotSurveySession> sessions;
+    private final BotSessionSnapshot snapshot;
+    private final Cache<Long, Boolean> expiredChats;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "bot-session-sweeper"));
+
+    public InMemoryBotSessionStore(String botName, long idleTtlMinutes, long maxSize, long sweepIntervalSeconds, long snapshotIntervalSeconds,
+                           BotSessionSnapshot snapshot, MeterRegistry meterRegistry) {
+        this(botName, idleTtlMinutes, maxSize, sweepIntervalSeconds, snapshotIntervalSeconds, snapshot, Ticker.systemTicker(), meterRegistry);
+    }
+
+    InMemoryBotSessionStore(String botName, long idleTtlMinutes, long maxSize, long sweepIntervalSeconds, long snapshotIntervalSeconds,
+                    BotSessionSnapshot snapshot, Ticker ticker, MeterRegistry meterRegistry) {
+        this.snapshot = snapshot;
+        this.expiredChats = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(1, TimeUnit.DAYS)
+                .ticker(ticker)
+                .build();
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleTtlMinutes, TimeUnit.MINUTES)
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .removalListener((Long chatId, BotSurveySession session, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        expiredChats.put(chatId, Boolean.TRUE);
+                    }
+                })
+                .build();
+        sweeper.scheduleAtFixedRate(sessions::cleanUp, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+        if (snapshot.isEnabled()) {
+            sweeper.execute(snapshot::load);
+            sweeper.scheduleWithFixedDelay(this::writeSnapshot, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+        Gauge.builder("bot.sessions.live", sessions, Cache::estimatedSize).tag("bot", botName).register(meterRegistry);
+        Gauge.builder("bot.sessions.heap", this, InMemoryBotSessionStore::estimateHeapBytes).tag("bot", botName).baseUnit("bytes").register(meterRegistry);
+    }
+
+    @Override
+    public BotSurveySession get(long chatId) {
+        return sessions.get(chatId, snapshot::restore);
+    }
+
+    @Override
+    public boolean isActive(long chatId) {
+        return sessions.getIfPresent(chatId) != null;
+    }
+
+    @Override
+    public void put(BotSurveySession session) {
+        snapshot.discard(session.getChatId());
+        sessions.put(session.getChatId(), session);
+        expiredChats.invalidate(session.getChatId());
+    }
+
+    @Override
+    public void save(BotSurveySession session) {
+    }
+
+    @Override
+    public void remove(long chatId) {
+        snapshot.discard(chatId);
+        sessions.invalidate(chatId);
+    }
+
+    public void writeSnapshot() {
+        try {
+            snapshot.write(sessions.asMap().values());
+        } catch (Exception e) {
+            log.error("Ошибка сохранения снимка сессий бота: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean consumeExpired(long chatId) {
+        return expiredChats.asMap().remove(chatId) != null;
+    }
+
+    @Override
+    public long size() {
+        return sessions.estimatedSize();
+    }
+
+    @Override
+    public void cleanUp() {
+        sessions.cleanUp();
+    }
+
+    public long estimateHeapBytes() {
+        Set<BotSurvey> surveys = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        for (BotSurveySession session : sessions.asMap().values()) {
+            bytes += SESSION_BYTES;
+            BotSurvey botSurvey = session.getBotSurvey();
+            if (botSurvey != null && surveys.add(botSurvey)) {
+                bytes += estimateBytes(botSurvey);
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public void shutdown() {
+        sweeper.shutdownNow();
+        writeSnapshot();
+    }
+
+    private static long estimateBytes(BotSurvey botSurvey) {
+        long bytes = SURVEY_BYTES + estimateBytes(botSurvey.getSurveyName());
+        if (botSurvey.getBotPolls() != null) {
+            for (BotPoll botPoll : botSurvey.getBotPolls()) {
+                bytes += POLL_BYTES + 2 * estimateBytes(botPoll.getQuestion());
+                for (String option : botPoll.getOptions()) {
+                    bytes += OPTION_BYTES + 2 * estimateBytes(option);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static long estimateBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+}
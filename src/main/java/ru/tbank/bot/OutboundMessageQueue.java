@@ -0,0 +1,191 @@
+package ru.tbank.bot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import javax.annotation.PreDestroy;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class OutboundMessageQueue {
+    private final int capacity;
+    private final int maxRetries;
+    private final double perChatRate;
+    private final int perChatBurst;
+    private final TokenBucket globalBucket;
+    private final Cache<Long, TokenBucket> chatBuckets;
+    private final Map<Long, Queue<OutboundMessage<?>>> chats = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "bot-outbound"));
+    private final MeterRegistry meterRegistry;
+    private final Counter overflowDrops;
+    private final Counter failedDrops;
+
+    public OutboundMessageQueue(@Value("${telegram-bot.outbound.queue-capacity:10000}") int capacity,
+                                @Value("${telegram-bot.outbound.max-retries:3}") int maxRetries,
+                                @Value("${telegram-bot.outbound.global-rate:30}") double globalRate,
+                                @Value("${telegram-bot.outbound.global-burst:30}") int globalBurst,
+                                @Value("${telegram-bot.outbound.per-chat-rate:1}") double perChatRate,
+                                @Value("${telegram-bot.outbound.per-chat-burst:3}") int perChatBurst,
+                                MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        this.maxRetries = maxRetries;
+        this.perChatRate = perChatRate;
+        this.perChatBurst = perChatBurst;
+        this.globalBucket = new TokenBucket(globalRate, globalBurst);
+        this.chatBuckets = Caffeine.newBuilder().expireAfterAccess(1, TimeUnit.MINUTES).build();
+        meterRegistry.gauge("bot.outbound.queue.depth", depth);
+        this.meterRegistry = meterRegistry;
+        this.overflowDrops = Counter.builder("bot.outbound.dropped").tag("reason", "overflow").register(meterRegistry);
+        this.failedDrops = Counter.builder("bot.outbound.dropped").tag("reason", "failed").register(meterRegistry);
+    }
+
+    public <T extends Serializable> CompletableFuture<T> send(AbsSender sender, long chatId, BotApiMethod<T> method) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            overflowDrops.increment();
+            log.warn("Очередь исходящих сообщений переполнена, сообщение в чат {} отброшено", chatId);
+            result.completeExceptionally(new RejectedExecutionException("Очередь исходящих сообщений переполнена"));
+            return result;
+        }
+        OutboundMessage<T> message = new OutboundMessage<>(sender, method, result);
+        boolean[] idle = new boolean[1];
+        chats.compute(chatId, (id, pending) -> {
+            if (pending == null) {
+                pending = new ConcurrentLinkedQueue<>();
+                idle[0] = true;
+            }
+            pending.add(message);
+            return pending;
+        });
+        if (idle[0]) {
+            scheduler.execute(() -> pump(chatId));
+        }
+        return result;
+    }
+
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (depth.get() > 0) {
+            log.warn("Остановка очереди исходящих сообщений, не отправлено сообщений: {}", depth.get());
+        }
+    }
+
+    private void pump(long chatId) {
+        pump(chatId, chats.get(chatId).peek());
+    }
+
+    private <T extends Serializable> void pump(long chatId, OutboundMessage<T> message) {
+        TokenBucket chatBucket = chatBuckets.get(chatId, id -> new TokenBucket(perChatRate, perChatBurst));
+        long waitNanos = Math.max(chatBucket.nanosUntilToken(), globalBucket.nanosUntilToken());
+        if (waitNanos > 0) {
+            scheduler.schedule(() -> pump(chatId), waitNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        chatBucket.consume();
+        globalBucket.consume();
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = message.sender.executeAsync(message.method);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((sent, error) -> {
+            recordSend(message.method, error, System.nanoTime() - start);
+            if (error == null) {
+                depth.decrementAndGet();
+                message.result.complete(sent);
+                next(chatId);
+            } else {
+                handleFailure(chatId, message, error instanceof CompletionException ? error.getCause() : error);
+            }
+        });
+    }
+
+    private void recordSend(BotApiMethod<?> method, Throwable error, long nanos) {
+        Timer.builder("bot.outbound.send")
+                .tag("method", method.getMethod())
+                .tag("outcome", error == null ? "success" : "error")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            String errorCode = cause instanceof TelegramApiRequestException && ((TelegramApiRequestException) cause).getErrorCode() != null
+                    ? String.valueOf(((TelegramApiRequestException) cause).getErrorCode()) : "none";
+            Counter.builder("bot.outbound.errors")
+                    .tag("method", method.getMethod())
+                    .tag("error_code", errorCode)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private void handleFailure(long chatId, OutboundMessage<?> message, Throwable error) {
+        Integer retryAfter = error instanceof TelegramApiRequestException && ((TelegramApiRequestException) error).getParameters() != null
+                ? ((TelegramApiRequestException) error).getParameters().getRetryAfter() : null;
+        if (retryAfter != null && message.attempts < maxRetries) {
+            message.attempts++;
+            log.warn("Превышен лимит отправки в чат {}, повтор через {} с", chatId, retryAfter);
+            scheduler.schedule(() -> pump(chatId), retryAfter, TimeUnit.SECONDS);
+            return;
+        }
+        failedDrops.increment();
+        log.error("Ошибка отправки сообщения в чат {}: {}", chatId, error.getMessage());
+        depth.decrementAndGet();
+        message.result.completeExceptionally(error);
+        next(chatId);
+    }
+
+    private void next(long chatId) {
+        boolean[] hasMore = new boolean[1];
+        chats.compute(chatId, (id, pending) -> {
+            pending.poll();
+            hasMore[0] = !pending.isEmpty();
+            return hasMore[0] ? pending : null;
+        });
+        if (hasMore[0]) {
+            scheduler.execute(() -> pump(chatId));
+        }
+    }
+
+    private static class OutboundMessage<T extends Serializable> {
+        private final AbsSender sender;
+        private final BotApiMethod<T> method;
+        private final CompletableFuture<T> result;
+        private int attempts;
+
+        private OutboundMessage(AbsSender sender, BotApiMethod<T> method, CompletableFuture<T> result) {
+            this.sender = sender;
+            this.method = method;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.tbank.bot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import ru.tbank.bot.entity.BotPoll;
+import ru.tbank.bot.entity.PollTarget;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PollIndex {
+    private final Cache<String, PollTarget> targets;
+
+    public PollIndex(@Value("${telegram-bot.poll-index.max-size:1000000}") long maxSize,
+                     @Value("${telegram-bot.poll-index.ttl-hours:24}") long ttlHours,
+                     MeterRegistry meterRegistry) {
+        this.targets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlHours, TimeUnit.HOURS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, targets, "bot.poll-index");
+    }
+
+    public void register(Message message, Long userId, BotPoll botPoll) {
+        if (message == null || message.getPoll() == null || userId == null) {
+            return;
+        }
+        targets.put(message.getPoll().getId(), botPoll.toPollTarget(userId));
+    }
+
+    public PollTarget get(String pollId) {
+        return targets.getIfPresent(pollId);
+    }
+
+    public long size() {
+        return targets.estimatedSize();
+    }
+}
@@ -0,0 +1,161 @@
+package ru.tbank.bot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.bot.entity.BotSurveySession;
+import ru.tbank.repository.BotSessionRepository;
+import ru.tbank.repository.StoredBotSession;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class PostgresBotSessionStore implements BotSessionStore {
+    private final String botName;
+    private final long idleTtlMillis;
+    private final BotSessionRepository repository;
+    private final BotSurveyCache botSurveyCache;
+    private final Cache<Long, Optional<BotSurveySession>> nearCache;
+    private final Cache<Long, Boolean> expiredChats;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "bot-session-sweeper"));
+    private final Timer loadTimer;
+    private final Timer writeTimer;
+    private final Counter conflicts;
+
+    public PostgresBotSessionStore(String botName, long idleTtlMinutes, long maxSize, long sweepIntervalSeconds, long nearCacheTtlMillis,
+                                   BotSessionRepository repository, BotSurveyCache botSurveyCache, MeterRegistry meterRegistry) {
+        this.botName = botName;
+        this.idleTtlMillis = TimeUnit.MINUTES.toMillis(idleTtlMinutes);
+        this.repository = repository;
+        this.botSurveyCache = botSurveyCache;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(nearCacheTtlMillis, TimeUnit.MILLISECONDS)
+                .build();
+        this.expiredChats = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(1, TimeUnit.MINUTES)
+                .build();
+        this.loadTimer = Timer.builder("bot.sessions.store").tag("bot", botName).tag("operation", "load").register(meterRegistry);
+        this.writeTimer = Timer.builder("bot.sessions.store").tag("bot", botName).tag("operation", "write").register(meterRegistry);
+        this.conflicts = Counter.builder("bot.sessions.conflicts").tag("bot", botName).register(meterRegistry);
+        Gauge.builder("bot.sessions.near-cache", nearCache, Cache::estimatedSize).tag("bot", botName).register(meterRegistry);
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public BotSurveySession get(long chatId) {
+        return nearCache.get(chatId, this::load).orElse(null);
+    }
+
+    @Override
+    public boolean isActive(long chatId) {
+        Optional<BotSurveySession> cached = nearCache.getIfPresent(chatId);
+        if (cached != null) {
+            return cached.isPresent();
+        }
+        return loadTimer.record(() -> repository.exists(botName, chatId, idleTtlMillis));
+    }
+
+    @Override
+    public void put(BotSurveySession session) {
+        long version = writeTimer.record(() -> repository.upsert(botName, session.getChatId(), session.getUserId(),
+                surveyGroupId(session), session.getCurrentQuestionIndex(), session.getProgressMessageId()));
+        session.setVersion(version);
+        nearCache.put(session.getChatId(), Optional.of(session));
+        expiredChats.invalidate(session.getChatId());
+    }
+
+    @Override
+    public void save(BotSurveySession session) {
+        boolean saved = writeTimer.record(() -> repository.update(botName, session.getChatId(), session.getUserId(),
+                surveyGroupId(session), session.getCurrentQuestionIndex(), session.getProgressMessageId(), session.getVersion()));
+        if (saved) {
+            session.setVersion(session.getVersion() + 1);
+            nearCache.put(session.getChatId(), Optional.of(session));
+        } else {
+            conflicts.increment();
+            nearCache.invalidate(session.getChatId());
+            log.warn("Сессия чата {} бота {} изменена другим узлом, изменения не сохранены", session.getChatId(), botName);
+        }
+    }
+
+    @Override
+    public void remove(long chatId) {
+        writeTimer.record(() -> repository.delete(botName, chatId));
+        nearCache.put(chatId, Optional.empty());
+    }
+
+    @Override
+    public boolean consumeExpired(long chatId) {
+        return expiredChats.asMap().remove(chatId) != null;
+    }
+
+    @Override
+    public long size() {
+        return repository.count(botName);
+    }
+
+    @Override
+    public void cleanUp() {
+        nearCache.cleanUp();
+        sweep();
+    }
+
+    @Override
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private Optional<BotSurveySession> load(long chatId) {
+        StoredBotSession stored = loadTimer.record(() -> repository.find(botName, chatId, idleTtlMillis));
+        if (stored == null) {
+            return Optional.empty();
+        }
+        if (stored.isExpired()) {
+            if (repository.delete(botName, chatId, stored.getVersion())) {
+                expiredChats.put(chatId, Boolean.TRUE);
+            }
+            return Optional.empty();
+        }
+        BotSurveySession session = new BotSurveySession(chatId);
+        session.setUserId(stored.getUserId());
+        session.setVersion(stored.getVersion());
+        session.setProgressMessageId(stored.getProgressMessageId());
+        if (stored.getSurveyGroupId() != null) {
+            try {
+                session.setBotSurvey(botSurveyCache.getSurvey(stored.getSurveyGroupId()));
+                session.setCurrentQuestionIndex(stored.getQuestionIndex());
+            } catch (Exception e) {
+                log.warn("Не удалось восстановить опрос сессии чата {}: {}", chatId, e.getMessage());
+                repository.delete(botName, chatId, stored.getVersion());
+                return Optional.empty();
+            }
+        }
+        return Optional.of(session);
+    }
+
+    private void sweep() {
+        try {
+            int deleted = repository.deleteIdle(botName, idleTtlMillis + TimeUnit.DAYS.toMillis(1));
+            if (deleted > 0) {
+                log.info("Удалено устаревших сессий бота {}: {}", botName, deleted);
+            }
+        } catch (Exception e) {
+            log.error("Ошибка удаления устаревших сессий бота {}: {}", botName, e.getMessage());
+        }
+    }
+
+    private static Long surveyGroupId(BotSurveySession session) {
+        BotSurvey botSurvey = session.getBotSurvey();
+        return botSurvey == null ? null : botSurvey.getSurveyGroupId();
+    }
+}
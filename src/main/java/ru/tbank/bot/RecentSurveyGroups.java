@@ -0,0 +1,66 @@
+package ru.tbank.bot;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.event.SurveyGroupChangedEvent;
+import ru.tbank.service.SurveyGroupService;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class RecentSurveyGroups {
+    private static final Comparator<SurveyGroup> NEWEST_FIRST = Comparator
+            .comparing(SurveyGroup::getInsertDt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(SurveyGroup::getSurveyGroupId, Comparator.reverseOrder());
+
+    private final SurveyGroupService surveyGroupService;
+    private final int count;
+    private volatile List<SurveyGroup> surveyGroups;
+
+    public RecentSurveyGroups(SurveyGroupService surveyGroupService,
+                              @Value("${telegram-bot.recent-groups.count:3}") int count) {
+        this.surveyGroupService = surveyGroupService;
+        this.count = count;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public List<String> getSurveyGroupNames() {
+        List<SurveyGroup> snapshot = surveyGroups;
+        if (snapshot == null) {
+            snapshot = reload();
+        }
+        return snapshot.stream().map(SurveyGroup::getSurveyGroupName).collect(Collectors.toList());
+    }
+
+    @EventListener
+    public synchronized void onSurveyGroupChanged(SurveyGroupChangedEvent event) {
+        if (surveyGroups == null) {
+            return;
+        }
+        SurveyGroup changedGroup = event.getSurveyGroup();
+        List<SurveyGroup> updated = new ArrayList<>(surveyGroups);
+        boolean removed = updated.removeIf(g -> g.getSurveyGroupId().equals(changedGroup.getSurveyGroupId()));
+        if (event.getChangeType() == SurveyGroupChangedEvent.ChangeType.DELETED) {
+            if (removed) {
+                reload();
+            }
+            return;
+        }
+        updated.add(changedGroup);
+        updated.sort(NEWEST_FIRST);
+        surveyGroups = List.copyOf(updated.subList(0, Math.min(count, updated.size())));
+    }
+
+    private synchronized List<SurveyGroup> reload() {
+        surveyGroups = List.copyOf(surveyGroupService.getRecentSurveyGroups(count));
+        return surveyGroups;
+    }
+}
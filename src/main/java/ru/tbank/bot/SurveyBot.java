@@ -1,62 +1,159 @@
 package ru.tbank.bot;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
-import org.telegram.telegrambots.meta.api.methods.polls.SendPoll;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageReplyMarkup;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
 import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.polls.PollAnswer;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardRow;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import ru.tbank.bot.entity.BotSurvey;
 import ru.tbank.bot.entity.BotSurveySession;
 import ru.tbank.bot.entity.BotPoll;
+import ru.tbank.bot.entity.PollTarget;
 import ru.tbank.dto.ResultDTO;
-import ru.tbank.dto.UserCreateDTO;
-import ru.tbank.entity.SurveyGroup;
-import ru.tbank.entity.User;
 import ru.tbank.service.ResultService;
-import ru.tbank.service.SurveyGroupService;
-import ru.tbank.service.SurveyService;
-import ru.tbank.service.SurveyTypeService;
-import ru.tbank.service.UserDetailsServiceImpl;
+import ru.tbank.service.ResultWriteBuffer;
 
 import javax.persistence.EntityNotFoundException;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 @Slf4j
-@Component
 public class SurveyBot extends TelegramLongPollingBot {
+    private static final String TIMEOUT_RESULT = "[]";
+
     private final String botUsername;
-    private final String botToken;
-    private UserDetailsServiceImpl userService;
-    private SurveyGroupService surveyGroupService;
-    private SurveyTypeService surveyTypeService;
-    private SurveyService surveyService;
+    private final int progressEditInterval;
+    private final long timeoutGraceMillis;
     private ResultService resultService;
+    private UpdateDispatcher updateDispatcher;
+    private BotSurveyCache botSurveyCache;
+    private BotUserCache botUserCache;
+    private RecentSurveyGroups recentSurveyGroups;
+    private SurveyNameIndex surveyNameIndex;
+    private SurveyGroupPages surveyGroupPages;
+    private OutboundMessageQueue outboundMessageQueue;
+    private BotSessionStore sessions;
+    private ResultWriteBuffer resultWriteBuffer;
+    private PollIndex pollIndex;
+    private TimeoutWheel timeoutWheel;
+    private UpdateAdmission updateAdmission;
+    private MeterRegistry meterRegistry;
 
-    public SurveyBot(
-            @Value("${telegram-bot.name}") String botUsername,
-            @Value("${telegram-bot.token}") String botToken, UserDetailsServiceImpl userService, SurveyGroupService surveyGroupService,
-            SurveyTypeService surveyTypeService, SurveyService surveyService, ResultService resultService) throws TelegramApiException {
+    public SurveyBot(String botUsername, String botToken, String apiUrl, int senderThreads, int progressEditInterval, long timeoutGraceMillis,
+            ResultService resultService, UpdateDispatcher updateDispatcher,
+            BotSurveyCache botSurveyCache, BotUserCache botUserCache, RecentSurveyGroups recentSurveyGroups, SurveyNameIndex surveyNameIndex,
+            SurveyGroupPages surveyGroupPages, OutboundMessageQueue outboundMessageQueue, BotSessionStore sessions, ResultWriteBuffer resultWriteBuffer,
+            PollIndex pollIndex, TimeoutWheel timeoutWheel, UpdateAdmission updateAdmission, MeterRegistry meterRegistry) throws TelegramApiException {
+        super(createBotOptions(apiUrl, senderThreads), botToken);
         this.botUsername = botUsername;
-        this.botToken = botToken;
-        this.userService = userService;
-        this.surveyGroupService = surveyGroupService;
-        this.surveyTypeService = surveyTypeService;
-        this.surveyService = surveyService;
+        this.progressEditInterval = progressEditInterval;
+        this.timeoutGraceMillis = timeoutGraceMillis;
         this.resultService = resultService;
+        this.updateDispatcher = updateDispatcher;
+        this.botSurveyCache = botSurveyCache;
+        this.botUserCache = botUserCache;
+        this.recentSurveyGroups = recentSurveyGroups;
+        this.surveyNameIndex = surveyNameIndex;
+        this.surveyGroupPages = surveyGroupPages;
+        this.outboundMessageQueue = outboundMessageQueue;
+        this.sessions = sessions;
+        this.resultWriteBuffer = resultWriteBuffer;
+        this.pollIndex = pollIndex;
+        this.timeoutWheel = timeoutWheel;
+        this.updateAdmission = updateAdmission;
+        this.meterRegistry = meterRegistry;
     }
 
-    private Map<Long, BotSurveySession> sessions = new ConcurrentHashMap<>();
+    private static DefaultBotOptions createBotOptions(String apiUrl, int senderThreads) {
+        DefaultBotOptions botOptions = new DefaultBotOptions();
+        if (StringUtils.hasText(apiUrl)) {
+            botOptions.setBaseUrl(apiUrl);
+        }
+        botOptions.setMaxThreads(senderThreads);
+        return botOptions;
+    }
 
     @Override
     public void onUpdateReceived(Update update) {
+        Long chatId = getChatId(update);
+        if (chatId == null) {
+            return;
+        }
+        UpdateAdmission.Decision decision = updateAdmission.admit(chatId, update);
+        if (decision == UpdateAdmission.Decision.BUSY) {
+            sendMessage(chatId, "Сейчас бот перегружен, попробуйте позже.");
+        } else if (decision == UpdateAdmission.Decision.ADMIT) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            updateDispatcher.dispatch(chatId, () -> {
+                try {
+                    handleUpdate(update);
+                } finally {
+                    updateAdmission.release(chatId);
+                    sample.stop(Timer.builder("bot.update")
+                            .tag("bot", botUsername)
+                            .tag("type", getUpdateType(update))
+                            .tag("command", getCommand(update))
+                            .register(meterRegistry));
+                }
+            });
+        }
+    }
+
+    private static String getUpdateType(Update update) {
+        if (update.hasPollAnswer()) {
+            return "poll_answer";
+        } else if (update.hasMessage() && update.getMessage().hasText()) {
+            return "text";
+        } else if (update.hasCallbackQuery()) {
+            return "callback_query";
+        }
+        return "other";
+    }
+
+    private static String getCommand(Update update) {
+        if (update.hasMessage() && update.getMessage().hasText()) {
+            String messageText = update.getMessage().getText();
+            if (messageText.equals("/start") || messageText.equals("/quit")) {
+                return messageText.substring(1);
+            }
+        }
+        return "none";
+    }
+
+    private Long getChatId(Update update) {
+        if (update.hasMessage()) {
+            return update.getMessage().getChatId();
+        } else if (update.hasPollAnswer()) {
+            return update.getPollAnswer().getUser().getId();
+        } else if (update.hasCallbackQuery() && update.getCallbackQuery().getMessage() != null) {
+            return update.getCallbackQuery().getMessage().getChatId();
+        }
+        return null;
+    }
+
+    private void handleUpdate(Update update) {
         if (update.hasMessage() && update.getMessage().hasText()) {
             String messageText = update.getMessage().getText();
             Chat chat = update.getMessage().getChat();
@@ -65,134 +162,361 @@ public class SurveyBot extends TelegramLongPollingBot {
                 startSession(chat);
             } else if (messageText.equals("/quit")) {
                 startSession(chat);
-            } else if (sessions.containsKey(chatId)) {
-                handleSurveyResponse(chatId, update);
             } else {
-                sendMessage(chatId, "Чтобы выбрать опрос, введите /start");
+                handleSurveyResponse(chatId, update);
             }
         } else if (update.hasPollAnswer()) {
-            long chatId = update.getPollAnswer().getUser().getId();
-            handleSurveyResponse(chatId, update);
+            PollAnswer pollAnswer = update.getPollAnswer();
+            long chatId = pollAnswer.getUser().getId();
+            PollTarget pollTarget = pollIndex.get(pollAnswer.getPollId());
+            if (pollTarget == null) {
+                handleSurveyResponse(chatId, update);
+            } else {
+                handlePollAnswer(chatId, pollAnswer, pollTarget);
+            }
+        } else if (update.hasCallbackQuery()) {
+            handleCallbackQuery(update.getCallbackQuery());
         }
     }
 
+    private void handleCallbackQuery(CallbackQuery callbackQuery) {
+        long chatId = callbackQuery.getMessage().getChatId();
+        outboundMessageQueue.send(this, chatId, AnswerCallbackQuery.builder().callbackQueryId(callbackQuery.getId()).build());
+        String data = callbackQuery.getData();
+        if (data == null) {
+            return;
+        }
+        try {
+            if (data.startsWith(SurveyGroupPages.PAGE_PREFIX)) {
+                showSurveyGroupPage(chatId, callbackQuery.getMessage().getMessageId(),
+                        Integer.parseInt(data.substring(SurveyGroupPages.PAGE_PREFIX.length())));
+            } else if (data.startsWith(SurveyGroupPages.GROUP_PREFIX)) {
+                selectSurveyGroup(chatId, Long.parseLong(data.substring(SurveyGroupPages.GROUP_PREFIX.length())));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Некорректные данные кнопки в чате {}: {}", chatId, data);
+        }
+    }
+
+    private void showSurveyGroupPage(long chatId, int messageId, int page) {
+        InlineKeyboardMarkup keyboard = surveyGroupPages.getPage(page);
+        if (keyboard == null) {
+            keyboard = surveyGroupPages.getPage(surveyGroupPages.getPageCount() - 1);
+        }
+        EditMessageReplyMarkup editMessage = new EditMessageReplyMarkup();
+        editMessage.setChatId(String.valueOf(chatId));
+        editMessage.setMessageId(messageId);
+        editMessage.setReplyMarkup(keyboard);
+        outboundMessageQueue.send(this, chatId, editMessage);
+    }
+
+    private void selectSurveyGroup(long chatId, long surveyGroupId) {
+        BotSurveySession session = sessions.get(chatId);
+        if (session == null) {
+            sendMessage(chatId, "Чтобы выбрать опрос, введите /start");
+        } else if (session.getBotSurvey() != null) {
+            sendMessage(chatId, "Вы уже проходите опрос. Для выхода из опроса введите /quit");
+        } else {
+            startSurvey(chatId, session, () -> botSurveyCache.getSurvey(surveyGroupId));
+        }
+    }
+
+    private void handlePollAnswer(long chatId, PollAnswer pollAnswer, PollTarget pollTarget) {
+        resultWriteBuffer.submit(new ResultDTO(pollTarget.getUserId(), pollTarget.getSurveyId(), pollTarget.getUserResult(pollAnswer.getOptionIds())));
+        BotSurveySession session = sessions.get(chatId);
+        if (isSentQuestion(session, pollTarget.getSurveyId())) {
+            continueSurvey(chatId, session);
+        }
+    }
+
+    private static boolean isSentQuestion(BotSurveySession session, long surveyId) {
+        if (session == null || session.getBotSurvey() == null) {
+            return false;
+        }
+        List<BotPoll> botPolls = session.getBotSurvey().getBotPolls();
+        int sentQuestionIndex = session.getCurrentQuestionIndex() - 1;
+        return 0 <= sentQuestionIndex && sentQuestionIndex < botPolls.size() && botPolls.get(sentQuestionIndex).getSurveyId() == surveyId;
+    }
+
+    // Хранилище postgres может вернуть заново загруженную копию сессии без таймера, тогда сверяется версия сессии
+    private static boolean isArmedTimeout(BotSurveySession session, BotSurveySession armed, TimeoutWheel.Timeout timeout) {
+        if (session == null || armed.getQuestionTimeout() != timeout) {
+            return false;
+        }
+        return session == armed || session.getQuestionTimeout() == null && session.getVersion() == armed.getVersion();
+    }
+
+    public CompletableFuture<Message> pushSurvey(long chatId, long userId, BotSurvey botSurvey) {
+        CompletableFuture<Message> result = new CompletableFuture<>();
+        try {
+            updateDispatcher.dispatch(chatId, () -> {
+                try {
+                    BotSurveySession current = sessions.get(chatId);
+                    if (current != null && current.getBotSurvey() != null) {
+                        result.complete(null);
+                        return;
+                    }
+                    BotSurveySession session = new BotSurveySession(chatId);
+                    session.setUserId(userId);
+                    skipPassedPolls(session, botSurvey);
+                    if (session.getCurrentQuestionIndex() >= botSurvey.getBotPolls().size()) {
+                        result.complete(null);
+                        return;
+                    }
+                    session.setBotSurvey(botSurvey);
+                    sessions.put(session);
+                    sendProgress(chatId, session, "Новый опрос");
+                    sendNextQuestion(chatId, session).whenComplete((message, e) -> {
+                        if (e != null) {
+                            result.completeExceptionally(e);
+                        } else {
+                            result.complete(message);
+                        }
+                    });
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     private void startSession(Chat chat) {
         long chatId = chat.getId();
+        BotSurveySession previous = sessions.get(chatId);
+        if (previous != null && previous.getQuestionTimeout() != null) {
+            previous.getQuestionTimeout().cancel();
+            previous.setQuestionTimeout(null);
+        }
         BotSurveySession session = new BotSurveySession(chatId);
         Long userId = getUserId(chat);
         session.setUserId(userId);
-        sessions.put(chatId, session);
-        sendMessage(chatId, "Введите название опроса, который хотите пройти.");
-        int surveyNamesExampleCount = 3;
-        String surveyNamesExample = getSurveyNamesExample(surveyNamesExampleCount);
+        sessions.put(session);
+        InlineKeyboardMarkup firstPage = surveyGroupPages.getPage(0);
+        StringBuilder text = new StringBuilder(firstPage == null
+                ? "Введите название опроса, который хотите пройти."
+                : "Введите название опроса, который хотите пройти, или выберите его из списка.");
+        String surveyNamesExample = String.join(", ", recentSurveyGroups.getSurveyGroupNames());
         if (StringUtils.hasText(surveyNamesExample)) {
-            sendMessage(chatId, "Последние " + surveyNamesExampleCount + " созданных опроса:");
-            sendMessage(chatId, surveyNamesExample);
-        }
-    }
-
-    private String getSurveyNamesExample(int surveyNamesExampleCount) {
-        List<SurveyGroup> surveyGroups = surveyGroupService.getAllSurveyGroups();
-        if (surveyGroups != null) {
-            return surveyGroups.stream().sorted((g1, g2) -> g2.getInsertDt().compareTo(g1.getInsertDt()))
-                    .limit(surveyNamesExampleCount).map(g -> g.getSurveyGroupName()).collect(Collectors.joining(", "));
+            text.append("\nПоследние ").append(recentSurveyGroups.getCount()).append(" созданных опроса: ").append(surveyNamesExample);
         }
-        return null;
+        text.append("\nДля выхода из опроса введите /quit");
+        SendMessage message = new SendMessage();
+        message.setChatId(String.valueOf(chatId));
+        message.setText(text.toString());
+        message.setReplyMarkup(firstPage);
+        outboundMessageQueue.send(this, chatId, message).thenAccept(sent -> rememberProgressMessage(chatId, sent));
     }
 
     private Long getUserId(Chat chat) {
-        User user = userService.findTgUserByUsername(new UserCreateDTO(chat.getId().toString(), chat.getFirstName(), chat.getLastName(), chat.getUserName()));
-        return user.getUserId();
+        return botUserCache.getUserId(chat);
     }
 
     private void handleSurveyResponse(long chatId, Update update) {
         BotSurveySession session = sessions.get(chatId);
-        if (session.getBotSurvey() == null) {
-            try {
-                BotSurvey survey = new BotSurvey.BotSurveyBuilder(update.getMessage().getText(), surveyTypeService, surveyGroupService, surveyService).build();
-                if (survey.getBotPolls().isEmpty()) {
-                    sendMessage(chatId, "Опрос пуст, выберите другой.");
-                } else {
-                    List<BotPoll> botPoll = survey.getBotPolls();
-                    int currentQuestionIndex = 0;
-                    while (currentQuestionIndex < botPoll.size() && isPoolPassed(session.getUserId(), botPoll.get(currentQuestionIndex).getSurveyId())) {
-                        session.incrementCurrentQuestionIndex();
-                        currentQuestionIndex = session.getCurrentQuestionIndex();
-                    }
-                    if (currentQuestionIndex < botPoll.size()) {
-                        sendMessage(chatId, "Опрос начался. Для выхода из опроса введите /quit");
-                        session.setBotSurvey(survey);
-                        sendNextQuestion(chatId, session);
-                    } else {
-                        sendMessage(chatId, "Вы уже ответили на все вопросы. Спасибо за участие!");
-                        sessions.remove(chatId);
-                        sendMessage(chatId, "Чтобы выбрать другой опрос, введите /start");
-                    }
-                }
-            } catch (EntityNotFoundException e) {
-                sendMessage(chatId, "Такого опроса не существут, выберите другой.\nЧтобы выбрать опрос, введите /start");
+        if (session == null) {
+            if (sessions.consumeExpired(chatId)) {
+                sendMessage(chatId, "Сессия завершена из-за бездействия.");
+            }
+            sendMessage(chatId, "Чтобы выбрать опрос, введите /start");
+        } else if (session.getBotSurvey() == null) {
+            String surveyName = surveyNameIndex.findName(update.getMessage().getText());
+            if (surveyName == null) {
+                suggestSurveys(chatId, update.getMessage().getText());
+            } else {
+                startSurvey(chatId, session, () -> botSurveyCache.getSurvey(surveyName));
             }
         } else {
             BotSurvey botSurvey = session.getBotSurvey();
             List<BotPoll> botPoll = botSurvey.getBotPolls();
-            int currentQuestionIndex = session.getCurrentQuestionIndex();
-            while (currentQuestionIndex < botPoll.size() && isPoolPassed(session.getUserId(), botPoll.get(currentQuestionIndex).getSurveyId())) {
-                session.incrementCurrentQuestionIndex();
-                currentQuestionIndex = session.getCurrentQuestionIndex();
+            int sentQuestionIndex = session.getCurrentQuestionIndex() - 1;
+            if (0 <= sentQuestionIndex && sentQuestionIndex < botPoll.size()) {
+                saveUserResult(session, update, botPoll.get(sentQuestionIndex));
+            }
+            continueSurvey(chatId, session);
+        }
+    }
+
+    private void startSurvey(long chatId, BotSurveySession session, Supplier<BotSurvey> surveyLoader) {
+        try {
+            BotSurvey survey = surveyLoader.get();
+            if (survey.getBotPolls().isEmpty()) {
+                sendMessage(chatId, "Опрос пуст, выберите другой.");
+            } else {
+                List<BotPoll> botPoll = survey.getBotPolls();
+                skipPassedPolls(session, survey);
+                if (session.getCurrentQuestionIndex() < botPoll.size()) {
+                    session.setBotSurvey(survey);
+                    if (session.getProgressMessageId() == 0) {
+                        sendProgress(chatId, session, "Опрос");
+                    } else if (progressEditInterval > 0) {
+                        editMessage(chatId, session.getProgressMessageId(), progressText("Опрос", session));
+                    }
+                    sendNextQuestion(chatId, session);
+                } else {
+                    sessions.remove(chatId);
+                    sendMessage(chatId, "Вы уже ответили на все вопросы. Спасибо за участие!\nЧтобы выбрать другой опрос, введите /start");
+                }
             }
-            if (0 <= currentQuestionIndex - 1 && currentQuestionIndex - 1 < botPoll.size()) {
-                saveUserResult(session, update, botPoll.get(currentQuestionIndex - 1));
+        } catch (EntityNotFoundException e) {
+            sendMessage(chatId, "Такого опроса не существут, выберите другой.\nЧтобы выбрать опрос, введите /start");
+        } catch (RuntimeException e) {
+            log.error("Ошибка запуска опроса в чате {}", chatId, e);
+            sendMessage(chatId, "Не удалось начать опрос, попробуйте позже.\nЧтобы выбрать опрос, введите /start");
+        }
+    }
+
+    private void suggestSurveys(long chatId, String text) {
+        List<String> suggestions = surveyNameIndex.suggest(text);
+        if (suggestions.isEmpty()) {
+            sendMessage(chatId, "Такого опроса не существут, выберите другой.\nЧтобы выбрать опрос, введите /start");
+            return;
+        }
+        List<KeyboardRow> keyboard = new ArrayList<>(suggestions.size());
+        for (String suggestion : suggestions) {
+            KeyboardRow row = new KeyboardRow();
+            row.add(suggestion);
+            keyboard.add(row);
+        }
+        SendMessage message = new SendMessage();
+        message.setChatId(String.valueOf(chatId));
+        message.setText("Такого опроса не существует. Возможно, вы имели в виду:");
+        message.setReplyMarkup(ReplyKeyboardMarkup.builder().keyboard(keyboard).oneTimeKeyboard(true).resizeKeyboard(true).build());
+        outboundMessageQueue.send(this, chatId, message);
+    }
+
+    private void continueSurvey(long chatId, BotSurveySession session) {
+        TimeoutWheel.Timeout questionTimeout = session.getQuestionTimeout();
+        if (questionTimeout != null) {
+            questionTimeout.cancel();
+            session.setQuestionTimeout(null);
+        }
+        BotSurvey botSurvey = session.getBotSurvey();
+        skipPassedPolls(session, botSurvey);
+        int questionIndex = session.getCurrentQuestionIndex();
+        if (questionIndex < botSurvey.getBotPolls().size()) {
+            if (progressEditInterval > 0 && questionIndex % progressEditInterval == 0 && session.getProgressMessageId() != 0) {
+                editMessage(chatId, session.getProgressMessageId(), progressText("Опрос", session));
             }
-            if (currentQuestionIndex < botPoll.size()) {
-                sendNextQuestion(chatId, session);
+            sendNextQuestion(chatId, session);
+        } else {
+            sessions.remove(chatId);
+            String text = "Опрос «" + botSurvey.getSurveyName() + "» завершён. Вы ответили на все вопросы. Спасибо за участие!\n"
+                    + "Чтобы выбрать другой опрос, введите /start";
+            if (session.getProgressMessageId() == 0) {
+                sendMessage(chatId, text);
             } else {
-                sendMessage(chatId, "Вы ответили на все вопросы. Спасибо за участие!");
-                sessions.remove(chatId);
-                sendMessage(chatId, "Чтобы выбрать другой опрос, введите /start");
+                editMessage(chatId, session.getProgressMessageId(), text).exceptionally(e -> {
+                    sendMessage(chatId, text);
+                    return null;
+                });
             }
         }
     }
 
-    private boolean isPoolPassed(Long userId, Long surveyId) {
-        ResultDTO emptyUserResultDTO = new ResultDTO(userId, surveyId, null);
-        if (resultService.checkResultExists(emptyUserResultDTO)) {
-            return true;
+    private void sendProgress(long chatId, BotSurveySession session, String title) {
+        SendMessage message = new SendMessage();
+        message.setChatId(String.valueOf(chatId));
+        message.setText(progressText(title, session));
+        outboundMessageQueue.send(this, chatId, message).thenAccept(sent -> rememberProgressMessage(chatId, sent));
+    }
+
+    private void rememberProgressMessage(long chatId, Message sent) {
+        if (sent == null || sent.getMessageId() == null) {
+            return;
+        }
+        int messageId = sent.getMessageId();
+        dispatchWithoutBlocking(chatId, () -> {
+            BotSurveySession session = sessions.get(chatId);
+            if (session != null && session.getProgressMessageId() != messageId) {
+                session.setProgressMessageId(messageId);
+                sessions.save(session);
+            }
+        });
+    }
+
+    private static String progressText(String title, BotSurveySession session) {
+        BotSurvey botSurvey = session.getBotSurvey();
+        return title + " «" + botSurvey.getSurveyName() + "»: вопрос " + (session.getCurrentQuestionIndex() + 1) + " из "
+                + botSurvey.getBotPolls().size() + ". Для выхода из опроса введите /quit";
+    }
+
+    private void skipPassedPolls(BotSurveySession session, BotSurvey botSurvey) {
+        List<BotPoll> botPolls = botSurvey.getBotPolls();
+        Set<Long> passedSurveyIds = resultService.getPassedSurveyIdsInGroup(session.getUserId(), botSurvey.getSurveyGroupId());
+        while (session.getCurrentQuestionIndex() < botPolls.size()
+                && passedSurveyIds.contains(botPolls.get(session.getCurrentQuestionIndex()).getSurveyId())) {
+            session.incrementCurrentQuestionIndex();
         }
-        return false;
     }
 
     private void saveUserResult(BotSurveySession session, Update update, BotPoll botPoll) {
         if (update.hasPollAnswer()) {
-            List<Integer> optionIds = update.getPollAnswer().getOptionIds();
-            String answerIds = optionIds.stream().map(o -> botPoll.getOptions().get(o).getAnswerId()).toList().toString();
+            String answerIds = botPoll.getUserResult(update.getPollAnswer().getOptionIds());
             ResultDTO userResultDTO = new ResultDTO(session.getUserId(), botPoll.getSurveyId(), answerIds);
-            resultService.createResult(userResultDTO);
+            resultWriteBuffer.submit(userResultDTO);
         }
     }
 
-    private void sendNextQuestion(long chatId, BotSurveySession session) {
+    private CompletableFuture<Message> sendNextQuestion(long chatId, BotSurveySession session) {
         BotSurvey survey = session.getBotSurvey();
         List<BotPoll> botPolls = survey.getBotPolls();
         try {
             if (botPolls != null) {
                 BotPoll botPoll = botPolls.get(session.getCurrentQuestionIndex());
-                SendPoll sendPoll = new SendPoll();
-                sendPoll.setChatId(chatId);
-                sendPoll.setQuestion(botPoll.getQuestion());
-                sendPoll.setOptions(botPoll.getOptions().stream().map(o -> o.getAnswer()).toList());
-                sendPoll.setIsAnonymous(false);
-                if (botPoll.isQuizFlg()) {
-                    sendPoll.setType("quiz");
-                    sendPoll.setCorrectOptionId(botPoll.getCorrectAnswer());
-                }
-                if (botPoll.isMultipleChoiceFlg()) {
-                    sendPoll.setAllowMultipleAnswers(true);
-                }
-                execute(sendPoll);
+                Long userId = session.getUserId();
+                CompletableFuture<Message> sent = outboundMessageQueue.send(this, chatId, botPoll.toSendPoll(chatId));
                 session.incrementCurrentQuestionIndex();
+                sessions.save(session);
+                sent.thenAccept(message -> {
+                    pollIndex.register(message, userId, botPoll);
+                    if (botPoll.getOpenPeriod() > 0) {
+                        long sentAt = System.nanoTime();
+                        dispatchWithoutBlocking(chatId, () -> scheduleQuestionTimeout(chatId, botPoll, sentAt));
+                    }
+                });
+                return sent;
             }
         } catch (Exception e) {
             log.error("Ошибка подготовки вопроса: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void scheduleQuestionTimeout(long chatId, BotPoll botPoll, long sentAt) {
+        BotSurveySession session = sessions.get(chatId);
+        if (!isSentQuestion(session, botPoll.getSurveyId())) {
+            return;
+        }
+        long delayMillis = TimeUnit.SECONDS.toMillis(botPoll.getOpenPeriod()) + timeoutGraceMillis
+                - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentAt);
+        AtomicReference<TimeoutWheel.Timeout> timeout = new AtomicReference<>();
+        timeout.set(timeoutWheel.schedule(Math.max(0, delayMillis),
+                () -> dispatchWithoutBlocking(chatId, () -> expireQuestion(chatId, session, timeout.get(), botPoll.getSurveyId()))));
+        session.setQuestionTimeout(timeout.get());
+    }
+
+    private void expireQuestion(long chatId, BotSurveySession armed, TimeoutWheel.Timeout timeout, long surveyId) {
+        BotSurveySession session = sessions.get(chatId);
+        if (isArmedTimeout(session, armed, timeout) && isSentQuestion(session, surveyId)) {
+            armed.setQuestionTimeout(null);
+            session.setQuestionTimeout(null);
+            resultWriteBuffer.submit(new ResultDTO(session.getUserId(), surveyId, TIMEOUT_RESULT));
+            Counter.builder("bot.question-timeouts.recorded").tag("bot", botUsername).register(meterRegistry).increment();
+            continueSurvey(chatId, session);
+        }
+    }
+
+    private void dispatchWithoutBlocking(long chatId, Runnable task) {
+        try {
+            if (!updateDispatcher.tryDispatch(chatId, task)) {
+                timeoutWheel.schedule(0, () -> dispatchWithoutBlocking(chatId, task));
+            }
+        } catch (RejectedExecutionException e) {
+            log.warn("Обработчик обновлений остановлен, отложенная задача чата {} не выполнена", chatId);
         }
     }
 
@@ -200,20 +524,23 @@ public class SurveyBot extends TelegramLongPollingBot {
         SendMessage message = new SendMessage();
         message.setChatId(String.valueOf(chatId));
         message.setText(text);
-        try {
-            execute(message);
-        } catch (Exception e) {
-            log.error("Ошибка отправки сообщения: " + e.getMessage());
-        }
+        outboundMessageQueue.send(this, chatId, message);
     }
 
-    @Override
-    public String getBotUsername() {
-        return botUsername;
+    private CompletableFuture<Serializable> editMessage(long chatId, int messageId, String text) {
+        EditMessageText editMessage = new EditMessageText();
+        editMessage.setChatId(String.valueOf(chatId));
+        editMessage.setMessageId(messageId);
+        editMessage.setText(text);
+        return outboundMessageQueue.send(this, chatId, editMessage);
+    }
+
+    public void shutdown() {
+        sessions.shutdown();
     }
 
     @Override
-    public String getBotToken() {
-        return botToken;
+    public String getBotUsername() {
+        return botUsername;
     }
 }
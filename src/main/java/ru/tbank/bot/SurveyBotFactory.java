@@ -0,0 +1,130 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import ru.tbank.repository.BotSessionRepository;
+import ru.tbank.service.ResultService;
+import ru.tbank.service.ResultWriteBuffer;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@Component
+public class SurveyBotFactory {
+    public static final String MEMORY_STORE = "memory";
+    public static final String POSTGRES_STORE = "postgres";
+
+    private final String apiUrl;
+    private final int senderThreads;
+    private final int progressEditInterval;
+    private final long timeoutGraceMillis;
+    private final String sessionStore;
+    private final long nearCacheTtlMillis;
+    private final long idleTtlMinutes;
+    private final long maxSessions;
+    private final long sweepIntervalSeconds;
+    private final String snapshotPath;
+    private final long snapshotIntervalSeconds;
+    private final int perChatCap;
+    private final long startWindowSeconds;
+    private final long maxQueueAgeMillis;
+    private final int updateWindow;
+    private final ResultService resultService;
+    private final UpdateDispatcher updateDispatcher;
+    private final BotSurveyCache botSurveyCache;
+    private final BotUserCache botUserCache;
+    private final RecentSurveyGroups recentSurveyGroups;
+    private final SurveyNameIndex surveyNameIndex;
+    private final SurveyGroupPages surveyGroupPages;
+    private final OutboundMessageQueue outboundMessageQueue;
+    private final ResultWriteBuffer resultWriteBuffer;
+    private final PollIndex pollIndex;
+    private final TimeoutWheel timeoutWheel;
+    private final BotSessionRepository botSessionRepository;
+    private final MeterRegistry meterRegistry;
+
+    public SurveyBotFactory(@Value("${telegram-bot.api-url:}") String apiUrl,
+                            @Value("${telegram-bot.outbound.sender-threads:4}") int senderThreads,
+                            @Value("${telegram-bot.progress.edit-interval:0}") int progressEditInterval,
+                            @Value("${telegram-bot.question-timeouts.grace-ms:2000}") long timeoutGraceMillis,
+                            @Value("${telegram-bot.sessions.store:" + MEMORY_STORE + "}") String sessionStore,
+                            @Value("${telegram-bot.sessions.near-cache-ttl-ms:1000}") long nearCacheTtlMillis,
+                            @Value("${telegram-bot.sessions.idle-ttl-minutes:30}") long idleTtlMinutes,
+                            @Value("${telegram-bot.sessions.max-size:100000}") long maxSessions,
+                            @Value("${telegram-bot.sessions.sweep-interval-seconds:60}") long sweepIntervalSeconds,
+                            @Value("${telegram-bot.sessions.snapshot.path:}") String snapshotPath,
+                            @Value("${telegram-bot.sessions.snapshot.interval-seconds:30}") long snapshotIntervalSeconds,
+                            @Value("${telegram-bot.admission.per-chat-cap:20}") int perChatCap,
+                            @Value("${telegram-bot.admission.start-window-seconds:5}") long startWindowSeconds,
+                            @Value("${telegram-bot.admission.max-queue-age-ms:5000}") long maxQueueAgeMillis,
+                            @Value("${telegram-bot.admission.update-window:4096}") int updateWindow,
+                            ResultService resultService, UpdateDispatcher updateDispatcher,
+                            BotSurveyCache botSurveyCache, BotUserCache botUserCache, RecentSurveyGroups recentSurveyGroups,
+                            SurveyNameIndex surveyNameIndex, SurveyGroupPages surveyGroupPages, OutboundMessageQueue outboundMessageQueue,
+                            ResultWriteBuffer resultWriteBuffer, PollIndex pollIndex, TimeoutWheel timeoutWheel,
+                            BotSessionRepository botSessionRepository, MeterRegistry meterRegistry) {
+        this.apiUrl = apiUrl;
+        this.senderThreads = senderThreads;
+        this.progressEditInterval = progressEditInterval;
+        this.timeoutGraceMillis = timeoutGraceMillis;
+        this.sessionStore = sessionStore;
+        this.nearCacheTtlMillis = nearCacheTtlMillis;
+        this.idleTtlMinutes = idleTtlMinutes;
+        this.maxSessions = maxSessions;
+        this.sweepIntervalSeconds = sweepIntervalSeconds;
+        this.snapshotPath = snapshotPath;
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.perChatCap = perChatCap;
+        this.startWindowSeconds = startWindowSeconds;
+        this.maxQueueAgeMillis = maxQueueAgeMillis;
+        this.updateWindow = updateWindow;
+        this.resultService = resultService;
+        this.updateDispatcher = updateDispatcher;
+        this.botSurveyCache = botSurveyCache;
+        this.botUserCache = botUserCache;
+        this.recentSurveyGroups = recentSurveyGroups;
+        this.surveyNameIndex = surveyNameIndex;
+        this.surveyGroupPages = surveyGroupPages;
+        this.outboundMessageQueue = outboundMessageQueue;
+        this.resultWriteBuffer = resultWriteBuffer;
+        this.pollIndex = pollIndex;
+        this.timeoutWheel = timeoutWheel;
+        this.botSessionRepository = botSessionRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public SurveyBot create(BotProperties.Bot bot, boolean multiBot) throws TelegramApiException {
+        if (!StringUtils.hasText(bot.getName()) || !StringUtils.hasText(bot.getToken())) {
+            throw new IllegalArgumentException("Для каждого бота должны быть указаны name и token");
+        }
+        BotSessionStore sessions = createSessionStore(bot.getName(), multiBot);
+        UpdateAdmission updateAdmission = new UpdateAdmission(bot.getName(), perChatCap, startWindowSeconds, maxQueueAgeMillis, updateWindow,
+                updateDispatcher, sessions, meterRegistry);
+        return new SurveyBot(bot.getName(), bot.getToken(), apiUrl, senderThreads, progressEditInterval, timeoutGraceMillis, resultService,
+                updateDispatcher, botSurveyCache, botUserCache, recentSurveyGroups, surveyNameIndex, surveyGroupPages, outboundMessageQueue, sessions,
+                resultWriteBuffer, pollIndex, timeoutWheel, updateAdmission, meterRegistry);
+    }
+
+    private BotSessionStore createSessionStore(String botName, boolean multiBot) {
+        if (POSTGRES_STORE.equals(sessionStore)) {
+            return new PostgresBotSessionStore(botName, idleTtlMinutes, maxSessions, sweepIntervalSeconds, nearCacheTtlMillis,
+                    botSessionRepository, botSurveyCache, meterRegistry);
+        } else if (!MEMORY_STORE.equals(sessionStore)) {
+            throw new IllegalArgumentException("Неизвестное хранилище сессий бота: " + sessionStore);
+        }
+        BotSessionSnapshot snapshot = new BotSessionSnapshot(snapshotPath(botName, multiBot), idleTtlMinutes, botSurveyCache);
+        return new InMemoryBotSessionStore(botName, idleTtlMinutes, maxSessions, sweepIntervalSeconds, snapshotIntervalSeconds,
+                snapshot, meterRegistry);
+    }
+
+    private String snapshotPath(String botName, boolean multiBot) {
+        if (!multiBot || !StringUtils.hasText(snapshotPath)) {
+            return snapshotPath;
+        }
+        Path path = Paths.get(snapshotPath);
+        return path.resolveSibling(botName + "-" + path.getFileName()).toString();
+    }
+}
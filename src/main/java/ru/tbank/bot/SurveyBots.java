@@ -0,0 +1,54 @@
+package ru.tbank.bot;
+
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SurveyBots {
+    private final Map<String, SurveyBot> bots = new LinkedHashMap<>();
+
+    public SurveyBots(List<SurveyBot> bots) {
+        if (bots.isEmpty()) {
+            throw new IllegalArgumentException("Не задано ни одного бота");
+        }
+        for (SurveyBot bot : bots) {
+            if (this.bots.putIfAbsent(bot.getBotUsername(), bot) != null) {
+                throw new IllegalArgumentException("Бот " + bot.getBotUsername() + " указан несколько раз");
+            }
+        }
+    }
+
+    public SurveyBot get(String botName) {
+        if (!StringUtils.hasText(botName)) {
+            return getDefault();
+        }
+        SurveyBot bot = bots.get(botName);
+        if (bot == null) {
+            throw new EntityNotFoundException("Бот с именем " + botName + " не найден");
+        }
+        return bot;
+    }
+
+    public SurveyBot getDefault() {
+        return bots.values().iterator().next();
+    }
+
+    public Collection<SurveyBot> getAll() {
+        return Collections.unmodifiableCollection(bots.values());
+    }
+
+    public int size() {
+        return bots.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bots.values().forEach(SurveyBot::shutdown);
+    }
+}
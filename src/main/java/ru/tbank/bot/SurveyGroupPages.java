@@ -0,0 +1,197 @@
+package ru.tbank.bot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.event.SurveyGroupChangedEvent;
+import ru.tbank.service.SurveyGroupService;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+@Slf4j
+@Component
+public class SurveyGroupPages {
+    public static final String PAGE_PREFIX = "page:";
+    public static final String GROUP_PREFIX = "group:";
+
+    private static final Comparator<Entry> BY_NAME = Comparator.comparing((Entry entry) -> entry.key).thenComparingLong(entry -> entry.surveyGroupId);
+
+    private final SurveyGroupService surveyGroupService;
+    private final int pageSize;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "survey-group-pages"));
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+    private volatile Snapshot snapshot;
+
+    public SurveyGroupPages(SurveyGroupService surveyGroupService,
+                            @Value("${telegram-bot.survey-picker.page-size:8}") int pageSize,
+                            @Value("${telegram-bot.survey-picker.refresh-minutes:5}") long refreshMinutes) {
+        this.surveyGroupService = surveyGroupService;
+        this.pageSize = pageSize;
+        refresher.scheduleWithFixedDelay(this::refresh, refreshMinutes, refreshMinutes, TimeUnit.MINUTES);
+    }
+
+    public int getPageCount() {
+        return getSnapshot().pages.length();
+    }
+
+    // Страницы строятся при первом показе, поэтому изменение группы не перестраивает сразу все страницы после нее
+    public InlineKeyboardMarkup getPage(int page) {
+        Snapshot current = getSnapshot();
+        if (page < 0 || page >= current.pages.length()) {
+            return null;
+        }
+        InlineKeyboardMarkup markup = current.pages.get(page);
+        if (markup == null) {
+            markup = buildPage(current.entries, page, current.pages.length());
+            current.pages.set(page, markup);
+        }
+        return markup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    @EventListener
+    public synchronized void onSurveyGroupChanged(SurveyGroupChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        SurveyGroup surveyGroup = event.getSurveyGroup();
+        List<Entry> entries = new ArrayList<>(current.entries);
+        int firstChanged = entries.size();
+        Entry previous = entriesById.remove(surveyGroup.getSurveyGroupId());
+        if (previous != null) {
+            int position = Collections.binarySearch(entries, previous, BY_NAME);
+            entries.remove(position);
+            firstChanged = position;
+        }
+        if (event.getChangeType() != SurveyGroupChangedEvent.ChangeType.DELETED) {
+            Entry entry = new Entry(surveyGroup.getSurveyGroupId(), surveyGroup.getSurveyGroupName());
+            int position = -Collections.binarySearch(entries, entry, BY_NAME) - 1;
+            entries.add(position, entry);
+            entriesById.put(entry.surveyGroupId, entry);
+            firstChanged = Math.min(firstChanged, position);
+        }
+        snapshot = new Snapshot(entries, reusePages(entries, current.pages, firstChanged / pageSize));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = reload();
+        }
+        return current;
+    }
+
+    private void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Ошибка обновления списка опросов бота: {}", e.getMessage());
+        }
+    }
+
+    private synchronized Snapshot reload() {
+        List<SurveyGroup> surveyGroups;
+        try {
+            surveyGroups = surveyGroupService.getAllSurveyGroups();
+        } catch (EntityNotFoundException e) {
+            surveyGroups = List.of();
+        }
+        List<Entry> entries = new ArrayList<>(surveyGroups.size());
+        entriesById.clear();
+        for (SurveyGroup surveyGroup : surveyGroups) {
+            Entry entry = new Entry(surveyGroup.getSurveyGroupId(), surveyGroup.getSurveyGroupName());
+            entries.add(entry);
+            entriesById.put(entry.surveyGroupId, entry);
+        }
+        entries.sort(BY_NAME);
+        snapshot = new Snapshot(entries, new AtomicReferenceArray<>(pageCount(entries)));
+        return snapshot;
+    }
+
+    private AtomicReferenceArray<InlineKeyboardMarkup> reusePages(List<Entry> entries, AtomicReferenceArray<InlineKeyboardMarkup> previousPages,
+                                                                  int firstChangedPage) {
+        int pageCount = pageCount(entries);
+        if (pageCount != previousPages.length()) {
+            firstChangedPage = Math.min(firstChangedPage, Math.min(pageCount, previousPages.length()) - 1);
+        }
+        AtomicReferenceArray<InlineKeyboardMarkup> pages = new AtomicReferenceArray<>(pageCount);
+        for (int page = 0; page < firstChangedPage && page < previousPages.length(); page++) {
+            pages.set(page, previousPages.get(page));
+        }
+        return pages;
+    }
+
+    private int pageCount(List<Entry> entries) {
+        return (entries.size() + pageSize - 1) / pageSize;
+    }
+
+    private InlineKeyboardMarkup buildPage(List<Entry> entries, int page, int pageCount) {
+        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>(pageSize + 1);
+        for (Entry entry : entries.subList(page * pageSize, Math.min(entries.size(), (page + 1) * pageSize))) {
+            keyboard.add(List.of(button(entry.name, GROUP_PREFIX + entry.surveyGroupId)));
+        }
+        List<InlineKeyboardButton> navigation = new ArrayList<>(2);
+        if (page > 0) {
+            navigation.add(button("« Назад", PAGE_PREFIX + (page - 1)));
+        }
+        if (page + 1 < pageCount) {
+            navigation.add(button("Далее »", PAGE_PREFIX + (page + 1)));
+        }
+        if (!navigation.isEmpty()) {
+            keyboard.add(List.copyOf(navigation));
+        }
+        return InlineKeyboardMarkup.builder().keyboard(List.copyOf(keyboard)).build();
+    }
+
+    private static InlineKeyboardButton button(String text, String callbackData) {
+        return InlineKeyboardButton.builder().text(text).callbackData(callbackData).build();
+    }
+
+    private static class Entry {
+        private final long surveyGroupId;
+        private final String name;
+        private final String key;
+
+        private Entry(long surveyGroupId, String name) {
+            this.surveyGroupId = surveyGroupId;
+            this.name = name;
+            this.key = name.toLowerCase();
+        }
+    }
+
+    private static class Snapshot {
+        private final List<Entry> entries;
+        private final AtomicReferenceArray<InlineKeyboardMarkup> pages;
+
+        private Snapshot(List<Entry> entries, AtomicReferenceArray<InlineKeyboardMarkup> pages) {
+            this.entries = entries;
+            this.pages = pages;
+        }
+    }
+}
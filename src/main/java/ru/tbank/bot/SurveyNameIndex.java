@@ -0,0 +1,335 @@
+package ru.tbank.bot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.event.SurveyGroupChangedEvent;
+import ru.tbank.service.SurveyGroupService;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class SurveyNameIndex {
+    private static final int MAX_FUZZY_CANDIDATES = 32;
+    private static final ThreadLocal<FuzzyScratch> FUZZY_SCRATCH = ThreadLocal.withInitial(FuzzyScratch::new);
+
+    private final SurveyGroupService surveyGroupService;
+    private final int maxSuggestions;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "survey-name-index"));
+    private final Map<Long, String> namesById = new HashMap<>();
+    private volatile Snapshot snapshot;
+    private volatile boolean stale;
+
+    public SurveyNameIndex(SurveyGroupService surveyGroupService,
+                           @Value("${telegram-bot.survey-index.suggestions:3}") int maxSuggestions,
+                           @Value("${telegram-bot.survey-index.refresh-minutes:5}") long refreshMinutes) {
+        this.surveyGroupService = surveyGroupService;
+        this.maxSuggestions = maxSuggestions;
+        refresher.scheduleWithFixedDelay(this::refresh, refreshMinutes, refreshMinutes, TimeUnit.MINUTES);
+    }
+
+    public String findName(String text) {
+        return getSnapshot().find(normalize(text));
+    }
+
+    public List<String> suggest(String text) {
+        return getSnapshot().suggest(normalize(text), maxSuggestions);
+    }
+
+    public int size() {
+        return getSnapshot().keys.length;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    @EventListener
+    public synchronized void onSurveyGroupChanged(SurveyGroupChangedEvent event) {
+        if (snapshot == null) {
+            return;
+        }
+        SurveyGroup surveyGroup = event.getSurveyGroup();
+        if (event.getChangeType() == SurveyGroupChangedEvent.ChangeType.DELETED) {
+            namesById.remove(surveyGroup.getSurveyGroupId());
+        } else {
+            namesById.put(surveyGroup.getSurveyGroupId(), surveyGroup.getSurveyGroupName());
+        }
+        stale = true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.append(c == 'ё' ? 'е' : c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    // Изменения групп только помечают индекс устаревшим, поэтому серия изменений перестраивает его один раз при следующем поиске
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = reload();
+        } else if (stale) {
+            current = rebuild();
+        }
+        return current;
+    }
+
+    private synchronized Snapshot rebuild() {
+        if (stale) {
+            stale = false;
+            snapshot = new Snapshot(namesById.values());
+        }
+        return snapshot;
+    }
+
+    private void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Ошибка обновления индекса названий опросов: {}", e.getMessage());
+        }
+    }
+
+    private synchronized Snapshot reload() {
+        List<SurveyGroup> surveyGroups;
+        try {
+            surveyGroups = surveyGroupService.getAllSurveyGroups();
+        } catch (EntityNotFoundException e) {
+            surveyGroups = List.of();
+        }
+        namesById.clear();
+        surveyGroups.forEach(surveyGroup -> namesById.put(surveyGroup.getSurveyGroupId(), surveyGroup.getSurveyGroupName()));
+        stale = false;
+        snapshot = new Snapshot(namesById.values());
+        return snapshot;
+    }
+
+    private static class Snapshot {
+        private final String[] keys;
+        private final String[] names;
+        private final Map<String, Integer> positions;
+        private final Map<String, int[]> postingsByTrigram;
+
+        private Snapshot(Collection<String> surveyNames) {
+            Map<String, String> namesByKey = new HashMap<>();
+            for (String name : surveyNames) {
+                namesByKey.putIfAbsent(normalize(name), name);
+            }
+            keys = namesByKey.keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+            names = new String[keys.length];
+            positions = new HashMap<>(keys.length * 2);
+            Map<String, List<Integer>> postings = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                names[i] = namesByKey.get(keys[i]);
+                positions.put(keys[i], i);
+                for (String trigram : trigrams(keys[i])) {
+                    List<Integer> posting = postings.computeIfAbsent(trigram, t -> new ArrayList<>());
+                    if (posting.isEmpty() || posting.get(posting.size() - 1) != i) {
+                        posting.add(i);
+                    }
+                }
+            }
+            postingsByTrigram = new HashMap<>(postings.size() * 2);
+            postings.forEach((trigram, posting) -> postingsByTrigram.put(trigram, posting.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        private String find(String key) {
+            Integer position = positions.get(key);
+            return position == null ? null : names[position];
+        }
+
+        private List<String> suggest(String key, int limit) {
+            if (key.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            int[] ranked = new int[limit];
+            int found = prefixed(key, ranked);
+            if (found < limit) {
+                found = fuzzy(key, ranked, found);
+            }
+            List<String> suggestions = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                suggestions.add(names[ranked[i]]);
+            }
+            return suggestions;
+        }
+
+        private int prefixed(String key, int[] ranked) {
+            int from = Arrays.binarySearch(keys, key);
+            int found = 0;
+            for (int i = from >= 0 ? from : -from - 1; i < keys.length && keys[i].startsWith(key); i++) {
+                int length = keys[i].length();
+                if (found == ranked.length && length >= keys[ranked[found - 1]].length()) {
+                    continue;
+                }
+                int slot = Math.min(found, ranked.length - 1);
+                while (slot > 0 && keys[ranked[slot - 1]].length() > length) {
+                    ranked[slot] = ranked[slot - 1];
+                    slot--;
+                }
+                ranked[slot] = i;
+                found = Math.min(found + 1, ranked.length);
+            }
+            return found;
+        }
+
+        private int fuzzy(String key, int[] ranked, int found) {
+            int maxDistance = key.length() <= 4 ? 1 : key.length() <= 8 ? 2 : 3;
+            FuzzyScratch scratch = FUZZY_SCRATCH.get();
+            int[] overlaps = scratch.overlaps(keys.length);
+            int[] touched = scratch.touched;
+            int touchedCount = 0;
+            for (String trigram : trigrams(key)) {
+                int[] posting = postingsByTrigram.get(trigram);
+                if (posting == null) {
+                    continue;
+                }
+                for (int i : posting) {
+                    if (overlaps[i]++ == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                            scratch.touched = touched;
+                        }
+                        touched[touchedCount++] = i;
+                    }
+                }
+            }
+            int[] candidates = new int[Math.min(MAX_FUZZY_CANDIDATES, touchedCount)];
+            int candidateCount = 0;
+            for (int t = 0; t < touchedCount; t++) {
+                int i = touched[t];
+                if (Math.abs(keys[i].length() - key.length()) > maxDistance
+                        || candidateCount == candidates.length && overlaps[i] <= overlaps[candidates[candidateCount - 1]]) {
+                    continue;
+                }
+                int slot = Math.min(candidateCount, candidates.length - 1);
+                while (slot > 0 && overlaps[candidates[slot - 1]] < overlaps[i]) {
+                    candidates[slot] = candidates[slot - 1];
+                    slot--;
+                }
+                candidates[slot] = i;
+                candidateCount = Math.min(candidateCount + 1, candidates.length);
+            }
+            for (int t = 0; t < touchedCount; t++) {
+                overlaps[touched[t]] = 0;
+            }
+            int prefixedCount = found;
+            int[] distances = new int[ranked.length];
+            for (int c = 0; c < candidateCount; c++) {
+                int i = candidates[c];
+                int distance = distance(key, keys[i], maxDistance);
+                if (distance > maxDistance || contains(ranked, prefixedCount, i)
+                        || found == ranked.length && distance >= distances[found - 1]) {
+                    continue;
+                }
+                int slot = Math.min(found, ranked.length - 1);
+                while (slot > prefixedCount && distances[slot - 1] > distance) {
+                    ranked[slot] = ranked[slot - 1];
+                    distances[slot] = distances[slot - 1];
+                    slot--;
+                }
+                ranked[slot] = i;
+                distances[slot] = distance;
+                found = Math.min(found + 1, ranked.length);
+            }
+            return found;
+        }
+
+        private static boolean contains(int[] values, int count, int value) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static List<String> trigrams(String key) {
+            String padded = "  " + key + " ";
+            List<String> result = new ArrayList<>(padded.length() - 2);
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+            return result;
+        }
+
+        private static int distance(String a, String b, int maxDistance) {
+            if (Math.abs(a.length() - b.length()) > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] previous = new int[b.length() + 1];
+            int[] current = new int[b.length() + 1];
+            int[] beforePrevious = new int[b.length() + 1];
+            for (int j = 0; j <= b.length(); j++) {
+                previous[j] = j;
+            }
+            for (int i = 1; i <= a.length(); i++) {
+                current[0] = i;
+                int rowMin = current[0];
+                for (int j = 1; j <= b.length(); j++) {
+                    int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                    if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                        current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                    }
+                    rowMin = Math.min(rowMin, current[j]);
+                }
+                if (rowMin > maxDistance) {
+                    return maxDistance + 1;
+                }
+                int[] recycled = beforePrevious;
+                beforePrevious = previous;
+                previous = current;
+                current = recycled;
+            }
+            return previous[b.length()];
+        }
+    }
+
+    // Буферы нечеткого поиска переиспользуются потоком между запросами, после поиска в них обнуляются только затронутые ячейки
+    private static class FuzzyScratch {
+        private int[] overlaps = new int[0];
+        private int[] touched = new int[64];
+
+        private int[] overlaps(int size) {
+            if (overlaps.length < size) {
+                overlaps = new int[size];
+            }
+            return overlaps;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+@Slf4j
+@Component
+@DependsOn("resultWriteBuffer")
+public class TimeoutWheel {
+    private final long tickNanos;
+    private final Timeout[] buckets;
+    private final int mask;
+    private final LongSupplier ticker;
+    private final long startNanos;
+    private final Counter expired;
+    private final Thread worker;
+    private long processedTick;
+    private long pending;
+    private volatile boolean running = true;
+
+    @Autowired
+    public TimeoutWheel(@Value("${telegram-bot.question-timeouts.tick-ms:100}") long tickMillis,
+                        @Value("${telegram-bot.question-timeouts.wheel-size:8192}") int wheelSize,
+                        MeterRegistry meterRegistry) {
+        this(tickMillis, wheelSize, System::nanoTime, meterRegistry, true);
+    }
+
+    TimeoutWheel(long tickMillis, int wheelSize, LongSupplier ticker, MeterRegistry meterRegistry, boolean startWorker) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new Timeout[size];
+        this.mask = size - 1;
+        this.ticker = ticker;
+        this.startNanos = ticker.getAsLong();
+        this.expired = Counter.builder("bot.question-timeouts.expired").register(meterRegistry);
+        Gauge.builder("bot.question-timeouts.pending", this, TimeoutWheel::getPending).register(meterRegistry);
+        this.worker = startWorker ? new Thread(this::run, "question-timeouts") : null;
+        if (worker != null) {
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    public synchronized Timeout schedule(long delayMillis, Runnable task) {
+        long ticks = (TimeUnit.MILLISECONDS.toNanos(delayMillis) + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(Math.max(currentTick() + ticks, processedTick + 1), task);
+        int bucket = (int) (timeout.deadlineTick & mask);
+        timeout.bucket = bucket;
+        timeout.next = buckets[bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+        pending++;
+        return timeout;
+    }
+
+    public synchronized long getPending() {
+        return pending;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    void expireDue() {
+        List<Timeout> due = new ArrayList<>();
+        synchronized (this) {
+            long tick = currentTick();
+            long to = Math.min(tick, processedTick + buckets.length);
+            for (long t = processedTick + 1; t <= to; t++) {
+                Timeout timeout = buckets[(int) (t & mask)];
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    if (timeout.deadlineTick <= tick) {
+                        unlink(timeout);
+                        due.add(timeout);
+                    }
+                    timeout = next;
+                }
+            }
+            processedTick = Math.max(processedTick, tick);
+        }
+        for (Timeout timeout : due) {
+            expired.increment();
+            try {
+                timeout.task.run();
+            } catch (Exception e) {
+                log.error("Ошибка обработки истекшего таймаута: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            expireDue();
+            long nextTickNanos;
+            synchronized (this) {
+                nextTickNanos = startNanos + (processedTick + 1) * tickNanos;
+            }
+            LockSupport.parkNanos(nextTickNanos - ticker.getAsLong());
+        }
+    }
+
+    private long currentTick() {
+        return (ticker.getAsLong() - startNanos) / tickNanos;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev == null) {
+            buckets[timeout.bucket] = timeout.next;
+        } else {
+            timeout.prev.next = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        pending--;
+    }
+
+    public class Timeout {
+        private final long deadlineTick;
+        private final Runnable task;
+        private Timeout prev;
+        private Timeout next;
+        private int bucket = -1;
+
+        private Timeout(long deadlineTick, Runnable task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        public boolean cancel() {
+            synchronized (TimeoutWheel.this) {
+                if (bucket < 0) {
+                    return false;
+                }
+                unlink(this);
+                return true;
+            }
+        }
+    }
+}
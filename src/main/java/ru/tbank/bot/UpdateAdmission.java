@@ -0,0 +1,94 @@
+package ru.tbank.bot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class UpdateAdmission {
+    public enum Decision {
+        ADMIT, DROP, BUSY
+    }
+
+    private final int perChatCap;
+    private final long maxQueueAgeMillis;
+    private final UpdateDispatcher updateDispatcher;
+    private final BotSessionStore sessions;
+    private final UpdateIdWindow updateIdWindow;
+    private final Map<Long, Integer> pendingByChat = new ConcurrentHashMap<>();
+    private final Cache<Long, Boolean> recentStarts;
+    private final Cache<Long, Boolean> busyNotified;
+    private final Counter chatCapShed;
+    private final Counter duplicateStartShed;
+    private final Counter overloadShed;
+    private final Counter duplicateUpdateShed;
+
+    public UpdateAdmission(String botName, int perChatCap, long startWindowSeconds, long maxQueueAgeMillis, int updateWindow,
+                           UpdateDispatcher updateDispatcher, BotSessionStore sessions, MeterRegistry meterRegistry) {
+        this.perChatCap = perChatCap;
+        this.maxQueueAgeMillis = maxQueueAgeMillis;
+        this.updateDispatcher = updateDispatcher;
+        this.sessions = sessions;
+        this.updateIdWindow = new UpdateIdWindow(updateWindow);
+        this.recentStarts = Caffeine.newBuilder().expireAfterWrite(startWindowSeconds, TimeUnit.SECONDS).build();
+        this.busyNotified = Caffeine.newBuilder().expireAfterWrite(startWindowSeconds, TimeUnit.SECONDS).build();
+        this.chatCapShed = Counter.builder("bot.admission.shed").tag("bot", botName).tag("reason", "chat_cap").register(meterRegistry);
+        this.duplicateStartShed = Counter.builder("bot.admission.shed").tag("bot", botName).tag("reason", "duplicate_start").register(meterRegistry);
+        this.overloadShed = Counter.builder("bot.admission.shed").tag("bot", botName).tag("reason", "overload").register(meterRegistry);
+        this.duplicateUpdateShed = Counter.builder("bot.admission.shed").tag("bot", botName).tag("reason", "duplicate_update").register(meterRegistry);
+        meterRegistry.gaugeMapSize("bot.admission.chats", Tags.of("bot", botName), pendingByChat);
+    }
+
+    public Decision admit(long chatId, Update update) {
+        if (update.getUpdateId() != null && updateIdWindow.record(update.getUpdateId()) == UpdateIdWindow.Result.DUPLICATE) {
+            duplicateUpdateShed.increment();
+            return Decision.DROP;
+        }
+        boolean start = isCommand(update, "/start");
+        if (start && recentStarts.asMap().putIfAbsent(chatId, Boolean.TRUE) != null) {
+            duplicateStartShed.increment();
+            return Decision.DROP;
+        }
+        if (updateDispatcher.getOldestQueueAgeMillis() > maxQueueAgeMillis && startsSession(chatId, update, start)) {
+            overloadShed.increment();
+            if (start) {
+                recentStarts.invalidate(chatId);
+            }
+            return busyNotified.asMap().putIfAbsent(chatId, Boolean.TRUE) == null ? Decision.BUSY : Decision.DROP;
+        }
+        boolean[] admitted = new boolean[1];
+        pendingByChat.compute(chatId, (id, pending) -> {
+            if (pending != null && pending >= perChatCap) {
+                return pending;
+            }
+            admitted[0] = true;
+            return pending == null ? 1 : pending + 1;
+        });
+        if (!admitted[0]) {
+            chatCapShed.increment();
+            return Decision.DROP;
+        }
+        return Decision.ADMIT;
+    }
+
+    public void release(long chatId) {
+        pendingByChat.computeIfPresent(chatId, (id, pending) -> pending > 1 ? pending - 1 : null);
+    }
+
+    private boolean startsSession(long chatId, Update update, boolean start) {
+        if (update.hasPollAnswer()) {
+            return false;
+        }
+        return start || isCommand(update, "/quit") || !sessions.isActive(chatId);
+    }
+
+    private static boolean isCommand(Update update, String command) {
+        return update.hasMessage() && update.getMessage().hasText() && command.equals(update.getMessage().getText());
+    }
+}
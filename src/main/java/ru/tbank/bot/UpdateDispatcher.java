@@ -0,0 +1,132 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@DependsOn("resultWriteBuffer")
+public class UpdateDispatcher {
+    private final ThreadPoolExecutor[] shards;
+
+    public UpdateDispatcher(
+            @Value("${telegram-bot.dispatcher.shards:8}") int shardCount,
+            @Value("${telegram-bot.dispatcher.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        if (shardCount <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Количество шардов и размер очереди должны быть больше нуля");
+        }
+        this.shards = new ThreadPoolExecutor[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            String threadName = "bot-update-" + i;
+            ThreadPoolExecutor shard = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), r -> new Thread(r, threadName), new WaitForSpacePolicy());
+            shard.prestartAllCoreThreads();
+            shards[i] = shard;
+            Gauge.builder("bot.dispatcher.queue.depth", shard, s -> s.getQueue().size())
+                    .description("Количество обновлений в очереди шарда")
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        TimeGauge.builder("bot.dispatcher.queue.age", this, TimeUnit.MILLISECONDS, UpdateDispatcher::getOldestQueueAgeMillis)
+                .description("Время ожидания самого старого обновления в очередях шардов")
+                .register(meterRegistry);
+    }
+
+    // Все обновления одного ключа (чата) обрабатываются одним потоком строго по порядку,
+    // поэтому сессию чата никогда не трогают два потока одновременно
+    public void dispatch(long key, Runnable task) {
+        shards[shardIndex(key)].execute(new QueuedTask(task));
+    }
+
+    // Не блокирует вызывающий поток: если очередь шарда заполнена, возвращает false
+    public boolean tryDispatch(long key, Runnable task) {
+        ThreadPoolExecutor shard = shards[shardIndex(key)];
+        if (shard.isShutdown()) {
+            throw new RejectedExecutionException("Обработчик обновлений остановлен");
+        }
+        return shard.getQueue().offer(new QueuedTask(task));
+    }
+
+    public int shardIndex(long key) {
+        return Math.floorMod(Long.hashCode(key), shards.length);
+    }
+
+    public long getOldestQueueAgeMillis() {
+        long now = System.nanoTime();
+        long oldest = 0;
+        for (ThreadPoolExecutor shard : shards) {
+            Runnable head = shard.getQueue().peek();
+            if (head instanceof QueuedTask) {
+                oldest = Math.max(oldest, now - ((QueuedTask) head).enqueuedAt);
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(oldest);
+    }
+
+    public int[] getQueueDepths() {
+        int[] depths = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            depths[i] = shards[i].getQueue().size();
+        }
+        return depths;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+        for (ThreadPoolExecutor shard : shards) {
+            if (!shard.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Не все обновления обработаны до остановки");
+                shard.shutdownNow();
+            }
+        }
+    }
+
+    private static class QueuedTask implements Runnable {
+        private final Runnable task;
+        private final long enqueuedAt = System.nanoTime();
+
+        private QueuedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Ошибка обработки обновления", e);
+            }
+        }
+    }
+
+    private static class WaitForSpacePolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Обработчик обновлений остановлен");
+            }
+            try {
+                executor.getQueue().put(r);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Ожидание места в очереди прервано", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.tbank.bot;
+
+import java.util.Arrays;
+
+public class UpdateIdWindow {
+    public enum Result {
+        NEW, DUPLICATE
+    }
+
+    private final long[] words;
+    private final int size;
+    private long highest = Long.MIN_VALUE;
+
+    public UpdateIdWindow(int size) {
+        int wordCount = Math.max(1, (size + Long.SIZE - 1) / Long.SIZE);
+        this.words = new long[wordCount];
+        this.size = wordCount * Long.SIZE;
+    }
+
+    public synchronized Result record(long updateId) {
+        if (highest == Long.MIN_VALUE || highest - updateId >= size) {
+            Arrays.fill(words, 0L);
+            highest = updateId;
+            set(updateId);
+            return Result.NEW;
+        }
+        if (updateId > highest) {
+            if (updateId - highest >= size) {
+                Arrays.fill(words, 0L);
+            } else {
+                for (long id = highest + 1; id < updateId; id++) {
+                    clear(id);
+                }
+            }
+            highest = updateId;
+            set(updateId);
+            return Result.NEW;
+        }
+        int bit = index(updateId);
+        long mask = 1L << (bit & (Long.SIZE - 1));
+        if ((words[bit >>> 6] & mask) != 0) {
+            return Result.DUPLICATE;
+        }
+        words[bit >>> 6] |= mask;
+        return Result.NEW;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    private void set(long updateId) {
+        int bit = index(updateId);
+        words[bit >>> 6] |= 1L << (bit & (Long.SIZE - 1));
+    }
+
+    private void clear(long updateId) {
+        int bit = index(updateId);
+        words[bit >>> 6] &= ~(1L << (bit & (Long.SIZE - 1)));
+    }
+
+    private int index(long updateId) {
+        return (int) Math.floorMod(updateId, (long) size);
+    }
+}
@@ -1,30 +1,106 @@
 package ru.tbank.bot.entity;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
+import org.telegram.telegrambots.meta.api.methods.polls.SendPoll;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiValidationException;
 import ru.tbank.entity.Answer;
 
 import java.util.List;
 
 @Getter
-@Setter
-@AllArgsConstructor
-@Data
 public class BotPoll {
-    private Long surveyId;
-    private String question;
-    private List<Answer> options;
-    private boolean multipleChoiceFlg;
-    private boolean quizFlg;
-    private int correctAnswer;
-
-    public BotPoll(Long surveyId, String question, List<Answer> options, boolean multipleChoiceFlg, boolean quizFlg) {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final long surveyId;
+    private final String question;
+    private final List<String> options;
+    @Getter(AccessLevel.NONE)
+    private final long[] answerIds;
+    private final int correctOptions;
+    private final boolean multipleChoiceFlg;
+    private final boolean quizFlg;
+    private final int openPeriod;
+    @Getter(AccessLevel.PACKAGE)
+    private final String sendPollBody;
+
+    public BotPoll(long surveyId, String question, List<Answer> answers, boolean multipleChoiceFlg, boolean quizFlg, int openPeriod) {
+        String[] texts = new String[answers.size()];
+        long[] ids = new long[answers.size()];
+        int correct = 0;
+        for (int i = 0; i < answers.size(); i++) {
+            Answer answer = answers.get(i);
+            texts[i] = answer.getAnswer().intern();
+            ids[i] = answer.getAnswerId();
+            if (Boolean.TRUE.equals(answer.getCorrectFlg())) {
+                correct |= 1 << i;
+            }
+        }
         this.surveyId = surveyId;
         this.question = question;
-        this.options = options;
+        this.options = List.of(texts);
+        this.answerIds = ids;
+        this.correctOptions = correct;
         this.multipleChoiceFlg = multipleChoiceFlg;
         this.quizFlg = quizFlg;
+        this.openPeriod = openPeriod;
+        this.sendPollBody = renderSendPollBody();
+    }
+
+    public int getCorrectAnswer() {
+        return correctOptions == 0 ? 0 : Integer.SIZE - 1 - Integer.numberOfLeadingZeros(correctOptions);
+    }
+
+    public boolean isCorrect(int optionId) {
+        return (correctOptions & (1 << optionId)) != 0;
+    }
+
+    public long getAnswerId(int optionId) {
+        return answerIds[optionId];
+    }
+
+    public PreparedSendPoll toSendPoll(long chatId) {
+        return new PreparedSendPoll(chatId, this);
+    }
+
+    public PollTarget toPollTarget(long userId) {
+        return new PollTarget(userId, surveyId, answerIds);
+    }
+
+    public String getUserResult(List<Integer> optionIds) {
+        return optionIds.stream().map(o -> answerIds[o]).toList().toString();
+    }
+
+    private String renderSendPollBody() {
+        SendPoll sendPoll = new SendPoll();
+        sendPoll.setChatId(0L);
+        sendPoll.setQuestion(question);
+        sendPoll.setOptions(options);
+        sendPoll.setIsAnonymous(false);
+        if (quizFlg) {
+            sendPoll.setType("quiz");
+            sendPoll.setCorrectOptionId(getCorrectAnswer());
+        }
+        if (multipleChoiceFlg) {
+            sendPoll.setAllowMultipleAnswers(true);
+        }
+        if (openPeriod > 0) {
+            sendPoll.setOpenPeriod(openPeriod);
+        }
+        try {
+            sendPoll.validate();
+        } catch (TelegramApiValidationException e) {
+            throw new IllegalStateException("Вопрос " + surveyId + " не может быть отправлен в телеграм: " + e.getMessage(), e);
+        }
+        try {
+            ObjectNode json = OBJECT_MAPPER.valueToTree(sendPoll);
+            json.remove("chat_id");
+            return OBJECT_MAPPER.writeValueAsString(json).substring(1);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось подготовить опрос " + surveyId, e);
+        }
     }
 }
@@ -1,85 +1,84 @@
 package ru.tbank.bot.entity;
 
-import lombok.Data;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import ru.tbank.entity.Answer;
 import ru.tbank.entity.Survey;
 import ru.tbank.entity.SurveyGroup;
+import ru.tbank.entity.SurveyType;
 import ru.tbank.service.SurveyGroupService;
 import ru.tbank.service.SurveyService;
 import ru.tbank.service.SurveyTypeService;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Slf4j
 @Getter
-@Setter
-@Data
 public class BotSurvey {
-    private String surveyName;
-    private List<BotPoll> botPolls;
+    private final Long surveyGroupId;
+    private final String surveyName;
+    private final List<BotPoll> botPolls;
+    @Getter(AccessLevel.NONE)
+    private final long[] surveyIds;
 
     public BotSurvey(BotSurveyBuilder botSurveyBuilder) {
+        this.surveyGroupId = botSurveyBuilder.surveyGroupId;
         this.surveyName = botSurveyBuilder.surveyName;
-        this.botPolls = botSurveyBuilder.botPolls;
+        this.botPolls = botSurveyBuilder.botPolls == null ? null : List.copyOf(botSurveyBuilder.botPolls);
+        this.surveyIds = botSurveyBuilder.surveyIds;
+    }
+
+    public boolean containsSurvey(long surveyId) {
+        return Arrays.binarySearch(surveyIds, surveyId) >= 0;
     }
 
     public static class BotSurveyBuilder {
+        private Long surveyGroupId;
         private String surveyName;
         private List<BotPoll> botPolls;
+        private long[] surveyIds = new long[0];
 
         public BotSurveyBuilder(String surveyName, SurveyTypeService surveyTypeService, SurveyGroupService surveyGroupService, SurveyService surveyService) {
+            this(surveyName, surveyGroupService.getSurveyGroupByName(surveyName), surveyTypeService, surveyService);
+        }
+
+        public BotSurveyBuilder(SurveyGroup surveyGroup, SurveyTypeService surveyTypeService, SurveyService surveyService) {
+            this(surveyGroup.getSurveyGroupName(), surveyGroup, surveyTypeService, surveyService);
+        }
+
+        private BotSurveyBuilder(String surveyName, SurveyGroup surveyGroup, SurveyTypeService surveyTypeService, SurveyService surveyService) {
             this.surveyName = surveyName;
-            SurveyGroup surveyGroup = surveyGroupService.getSurveyGroupByName(surveyName);
             if (surveyGroup == null) {
                 this.botPolls = null;
                 return;
             }
+            this.surveyGroupId = surveyGroup.getSurveyGroupId();
             List<Survey> surveys = surveyService.getAllSurveysInGroupWithAnswers(surveyGroup.getSurveyGroupId());
+            this.surveyIds = surveys.stream().mapToLong(Survey::getSurveyId).sorted().toArray();
             if (surveys.isEmpty()) {
                 this.botPolls = new ArrayList<>();
                 return;
             }
             Long surveyTypeId = surveyGroup.getSurveyTypeId();
-            boolean isMultipleChoiceFlg = surveyTypeService.getSurveyTypeById(surveyTypeId).isMultipleChoiceFlg();
-            boolean isQuizFlg = surveyTypeService.getSurveyTypeById(surveyTypeId).isQuizFlg();
-            log.info("Опрос {}, квиз: {}, множественный выбор: {}", surveyName, isQuizFlg, isMultipleChoiceFlg);
-            List<BotPoll> botPolls = new ArrayList<>();
-            if (isQuizFlg) {
-                for (Survey survey : surveys) {
-                    List<Answer> answers = survey.getAnswers();
-                    if (answers.size() <= 1 || answers.size() > 10) {
-                        log.warn("У вопроса неподходящее для телеграма количество ответов");
-                        continue;
-                    }
-                    List<Answer> options = new ArrayList<>();
-                    int correctAnswer = 0;
-                    for (int i = 0; i < answers.size(); i++) {
-                        Answer answer = answers.get(i);
-                        options.add(answer);
-                        if (answer.getCorrectFlg() == true) {
-                            correctAnswer = i;
-                        }
-                    }
-                    BotPoll botPoll = new BotPoll(survey.getSurveyId(), survey.getSurveyQuestion(), options, isMultipleChoiceFlg, isQuizFlg, correctAnswer);
-                    botPolls.add(botPoll);
+            SurveyType surveyType = surveyTypeService.getSurveyTypeById(surveyTypeId);
+            boolean isMultipleChoiceFlg = surveyType.isMultipleChoiceFlg();
+            boolean isQuizFlg = surveyType.isQuizFlg();
+            int openPeriod = surveyGroup.getTimeLimitSeconds() == null ? 0 : surveyGroup.getTimeLimitSeconds();
+            log.info("Опрос {}, квиз: {}, множественный выбор: {}, время на вопрос: {}", surveyName, isQuizFlg, isMultipleChoiceFlg, openPeriod);
+            List<BotPoll> botPolls = new ArrayList<>(surveys.size());
+            for (Survey survey : surveys) {
+                List<Answer> answers = survey.getAnswers();
+                if (answers.size() <= 1 || answers.size() > 10) {
+                    log.warn("У вопроса неподходящее для телеграма количество ответов");
+                    continue;
                 }
-            } else {
-                for (Survey survey : surveys) {
-                    List<Answer> answers = survey.getAnswers();
-                    List<Answer> options = new ArrayList<>();
-                    if (answers.size() <= 1 || answers.size() > 10) {
-                        log.warn("У вопроса неподходящее для телеграма количество ответов");
-                        continue;
-                    }
-                    for (Answer answer : answers) {
-                        options.add(answer);
-                    }
-                    BotPoll botPoll = new BotPoll(survey.getSurveyId(), survey.getSurveyQuestion(), options, isMultipleChoiceFlg, isQuizFlg);
-                    botPolls.add(botPoll);
+                try {
+                    botPolls.add(new BotPoll(survey.getSurveyId(), survey.getSurveyQuestion(), answers, isMultipleChoiceFlg, isQuizFlg, openPeriod));
+                } catch (IllegalStateException e) {
+                    log.warn("Вопрос пропущен: {}", e.getMessage());
                 }
             }
             this.botPolls = botPolls;
@@ -3,16 +3,19 @@ package ru.tbank.bot.entity;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import ru.tbank.bot.TimeoutWheel;
 
 @Getter
 @Setter
 @Data
 public class BotSurveySession {
-    private Long chatId;
+    private long chatId;
     private Long userId;
-    private String surveyName;
     private BotSurvey botSurvey;
     private int currentQuestionIndex;
+    private long version;
+    private int progressMessageId;
+    private TimeoutWheel.Timeout questionTimeout;
 
     public BotSurveySession(long chatId) {
         this.chatId = chatId;
@@ -0,0 +1,22 @@
+package ru.tbank.bot.entity;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class PollTarget {
+    private final long userId;
+    private final long surveyId;
+    private final long[] answerIds;
+
+    public PollTarget(long userId, long surveyId, long[] answerIds) {
+        this.userId = userId;
+        this.surveyId = surveyId;
+        this.answerIds = answerIds;
+    }
+
+    public String getUserResult(List<Integer> optionIds) {
+        return optionIds.stream().map(o -> answerIds[o]).toList().toString();
+    }
+}
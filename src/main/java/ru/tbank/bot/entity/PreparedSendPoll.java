@@ -0,0 +1,56 @@
+package ru.tbank.bot.entity;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.BotApiMethodMessage;
+import org.telegram.telegrambots.meta.api.methods.polls.SendPoll;
+
+import java.io.IOException;
+import java.util.List;
+
+public class PreparedSendPoll extends BotApiMethodMessage implements JsonSerializable {
+    private final long chatId;
+    private final BotPoll botPoll;
+
+    PreparedSendPoll(long chatId, BotPoll botPoll) {
+        this.chatId = chatId;
+        this.botPoll = botPoll;
+    }
+
+    public long getChatId() {
+        return chatId;
+    }
+
+    public String getQuestion() {
+        return botPoll.getQuestion();
+    }
+
+    public List<String> getOptions() {
+        return botPoll.getOptions();
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue("{\"chat_id\":\"");
+        gen.writeRaw(Long.toString(chatId));
+        gen.writeRaw("\",");
+        gen.writeRaw(botPoll.getSendPollBody());
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public String getMethod() {
+        return SendPoll.PATH;
+    }
+
+    // Тело запроса проверяется один раз при сборке опроса в BotPoll
+    @Override
+    public void validate() {
+    }
+}
@@ -37,11 +37,14 @@ public class SecurityConfiguration {
                 .and().authorizeRequests()
                 .antMatchers("/swagger-ui/*").permitAll()
                 .antMatchers("/api/v1/register").permitAll()
+                .antMatchers("/api/v1/bot/webhook/**").permitAll()
                 .antMatchers("/api/v1/auth/reset-password").hasRole("USER")
                 .antMatchers("/api/v1/auth/login").permitAll()
                 .antMatchers("/api/v1/auth/logout").hasRole("USER")
                 .antMatchers("/api/v1/admin/**").hasRole("ADMIN")
                 .antMatchers("/api/v1/**").hasRole("USER")
+                .antMatchers("/actuator/health").permitAll()
+                .antMatchers("/actuator/**").hasRole("ADMIN")
                 .and()
                 .sessionManagement()
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
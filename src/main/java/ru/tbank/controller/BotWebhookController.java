@@ -0,0 +1,74 @@
+package ru.tbank.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import ru.tbank.bot.BotConfig;
+import ru.tbank.bot.SurveyBots;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/bot")
+@ConditionalOnProperty(name = "telegram-bot.mode", havingValue = BotConfig.WEBHOOK_MODE)
+public class BotWebhookController {
+    public static final String SECRET_TOKEN_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private final SurveyBots surveyBots;
+    private final byte[] secretToken;
+
+    public BotWebhookController(SurveyBots surveyBots, @Value("${telegram-bot.webhook.secret-token:}") String secretToken) {
+        this.surveyBots = surveyBots;
+        this.secretToken = StringUtils.hasText(secretToken) ? secretToken.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    @Operation(summary = "Получение обновлений телеграм-бота через вебхук")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Success"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "500", description = "Application error")})
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> onUpdateReceived(@RequestHeader(value = SECRET_TOKEN_HEADER, required = false) String token,
+                                                 @RequestBody Update update) {
+        return onUpdateReceived(null, token, update);
+    }
+
+    @Operation(summary = "Получение обновлений указанного телеграм-бота через вебхук")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Success"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "404", description = "Entity not found"),
+            @ApiResponse(responseCode = "500", description = "Application error")})
+    @PostMapping("/webhook/{botName}")
+    public ResponseEntity<Void> onUpdateReceived(@PathVariable String botName,
+                                                 @RequestHeader(value = SECRET_TOKEN_HEADER, required = false) String token,
+                                                 @RequestBody Update update) {
+        if (!isSecretTokenValid(token)) {
+            log.warn("Получено обновление с неверным секретным токеном");
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        surveyBots.get(botName).onUpdateReceived(update);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    private boolean isSecretTokenValid(String token) {
+        return secretToken != null && token != null && MessageDigest.isEqual(secretToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.tbank.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.tbank.bot.CampaignRunner;
+import ru.tbank.bot.SurveyBots;
+import ru.tbank.dto.CampaignDTO;
+import ru.tbank.dto.CampaignProgressDTO;
+import ru.tbank.service.CampaignService;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/campaign")
+public class CampaignController {
+    private final CampaignService campaignService;
+    private final CampaignRunner campaignRunner;
+    private final SurveyBots surveyBots;
+
+    public CampaignController(CampaignService campaignService, CampaignRunner campaignRunner, SurveyBots surveyBots) {
+        this.campaignService = campaignService;
+        this.campaignRunner = campaignRunner;
+        this.surveyBots = surveyBots;
+    }
+
+    @Operation(summary = "Запуск рассылки опроса пользователям бота")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Successful creation"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "404", description = "Entity not found"),
+            @ApiResponse(responseCode = "500", description = "Application error")})
+    @PostMapping
+    public ResponseEntity<CampaignProgressDTO> createCampaign(@RequestBody CampaignDTO campaignDTO) {
+        surveyBots.get(campaignDTO.getBotName());
+        CampaignProgressDTO progress = campaignRunner.start(campaignService.createCampaign(campaignDTO));
+        return new ResponseEntity<>(progress, HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Получение прогресса рассылки опроса")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Success"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "404", description = "Entity not found"),
+            @ApiResponse(responseCode = "500", description = "Application error")})
+    @GetMapping("/{id}")
+    public ResponseEntity<CampaignProgressDTO> getCampaignProgress(@PathVariable Long id) {
+        return new ResponseEntity<>(campaignRunner.getProgress(id), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Остановка рассылки опроса")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Success"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "404", description = "Entity not found"),
+            @ApiResponse(responseCode = "500", description = "Application error")})
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<CampaignProgressDTO> stopCampaign(@PathVariable Long id) {
+        return new ResponseEntity<>(campaignRunner.stop(id), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Возобновление рассылки опроса с последней сохраненной позиции")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Success"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "404", description = "Entity not found"),
+            @ApiResponse(responseCode = "500", description = "Application error")})
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<CampaignProgressDTO> resumeCampaign(@PathVariable Long id) {
+        return new ResponseEntity<>(campaignRunner.resume(id), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.tbank.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class CampaignDTO {
+    private String surveyGroupName;
+    private String botName;
+    private LocalDateTime registeredAfter;
+    private boolean excludePassed;
+}
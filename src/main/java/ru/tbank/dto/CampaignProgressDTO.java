@@ -0,0 +1,32 @@
+package ru.tbank.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import ru.tbank.entity.Campaign;
+
+@Getter
+@Setter
+public class CampaignProgressDTO {
+    private Long campaignId;
+    private Long surveyGroupId;
+    private Campaign.CampaignStatus status;
+    private long total;
+    private long sent;
+    private long failed;
+    private long skipped;
+    private long remaining;
+
+    public CampaignProgressDTO(Campaign campaign, long sent, long failed, long skipped) {
+        this.campaignId = campaign.getCampaignId();
+        this.surveyGroupId = campaign.getSurveyGroupId();
+        this.status = campaign.getStatus();
+        this.total = campaign.getTotalCount();
+        this.sent = sent;
+        this.failed = failed;
+        this.skipped = skipped;
+        this.remaining = Math.max(0, total - sent - failed - skipped);
+    }
+
+    public CampaignProgressDTO() {
+    }
+}
@@ -8,4 +8,5 @@ import lombok.Setter;
 public class SurveyGroupDTO {
     private String surveyGroupName;
     private Long surveyTypeId;
+    private Integer timeLimitSeconds;
 }
@@ -0,0 +1,66 @@
+package ru.tbank.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Table(name = "campaigns", schema = "survey")
+@Entity
+public class Campaign {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "campaign_id")
+    private Long campaignId;
+
+    @Column(name = "survey_group_id", nullable = false)
+    private Long surveyGroupId;
+
+    @Column(name = "bot_name")
+    private String botName;
+
+    @Column(name = "registered_after")
+    private LocalDateTime registeredAfter;
+
+    @Column(name = "exclude_passed_flg", nullable = false)
+    private boolean excludePassedFlg;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private CampaignStatus status;
+
+    @Column(name = "last_user_id", nullable = false)
+    private long lastUserId;
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    @Column(name = "sent_count", nullable = false)
+    private long sentCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount;
+
+    @Column(name = "skipped_count", nullable = false)
+    private long skippedCount;
+
+    @Column(name = "insert_dt")
+    private LocalDateTime insertDt;
+
+    @Column(name = "update_dt")
+    private LocalDateTime updateDt;
+
+    public enum CampaignStatus {
+        RUNNING, STOPPED, FINISHED
+    }
+}
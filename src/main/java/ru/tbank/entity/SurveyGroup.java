@@ -27,6 +27,9 @@ public class SurveyGroup {
     @Column(name = "survey_type_id")
     private Long surveyTypeId;
 
+    @Column(name = "time_limit_seconds")
+    private Integer timeLimitSeconds;
+
     @Column(name = "insert_dt")
     private LocalDateTime insertDt;
 }
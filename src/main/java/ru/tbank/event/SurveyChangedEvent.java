@@ -0,0 +1,11 @@
+package ru.tbank.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SurveyChangedEvent {
+    private final Long surveyGroupId;
+    private final Long surveyId;
+}
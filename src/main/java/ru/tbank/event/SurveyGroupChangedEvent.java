@@ -0,0 +1,21 @@
+package ru.tbank.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.tbank.entity.SurveyGroup;
+
+@Getter
+@AllArgsConstructor
+public class SurveyGroupChangedEvent {
+    private final ChangeType changeType;
+    private final SurveyGroup surveyGroup;
+    private final String previousName;
+
+    public SurveyGroupChangedEvent(ChangeType changeType, SurveyGroup surveyGroup) {
+        this(changeType, surveyGroup, null);
+    }
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+}
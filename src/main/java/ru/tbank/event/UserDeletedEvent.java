@@ -0,0 +1,11 @@
+package ru.tbank.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.tbank.entity.User;
+
+@Getter
+@AllArgsConstructor
+public class UserDeletedEvent {
+    private final User user;
+}
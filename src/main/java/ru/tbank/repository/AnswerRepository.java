@@ -2,6 +2,8 @@ package ru.tbank.repository;
 
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.tbank.entity.Answer;
 
@@ -14,4 +16,7 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
     Answer findByAnswerId(Long answerId);
 
     boolean existsByAnswerId(Long answerId);
+
+    @Query("SELECT a.survey.surveyId FROM Answer a WHERE a.answerId = :answerId")
+    Long findSurveyIdByAnswerId(@Param("answerId") Long answerId);
 }
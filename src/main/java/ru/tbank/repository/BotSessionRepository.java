@@ -0,0 +1,71 @@
+package ru.tbank.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class BotSessionRepository {
+    private static final String FIND = "SELECT user_id, survey_group_id, question_index, progress_message_id, version, "
+            + "update_dt < LOCALTIMESTAMP - ? * INTERVAL '1 millisecond' AS expired "
+            + "FROM survey.bot_sessions WHERE bot_name = ? AND chat_id = ?";
+    private static final String EXISTS = "SELECT EXISTS (SELECT 1 FROM survey.bot_sessions WHERE bot_name = ? AND chat_id = ? "
+            + "AND update_dt >= LOCALTIMESTAMP - ? * INTERVAL '1 millisecond')";
+    private static final String UPSERT = "INSERT INTO survey.bot_sessions (bot_name, chat_id, user_id, survey_group_id, question_index, progress_message_id, version, update_dt) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0, LOCALTIMESTAMP) "
+            + "ON CONFLICT ON CONSTRAINT bot_sessions_pkey DO UPDATE SET user_id = EXCLUDED.user_id, "
+            + "survey_group_id = EXCLUDED.survey_group_id, question_index = EXCLUDED.question_index, progress_message_id = EXCLUDED.progress_message_id, "
+            + "version = survey.bot_sessions.version + 1, update_dt = EXCLUDED.update_dt "
+            + "RETURNING version";
+    private static final String UPDATE = "UPDATE survey.bot_sessions SET user_id = ?, survey_group_id = ?, question_index = ?, progress_message_id = ?, "
+            + "version = version + 1, update_dt = LOCALTIMESTAMP WHERE bot_name = ? AND chat_id = ? AND version = ?";
+    private static final String DELETE = "DELETE FROM survey.bot_sessions WHERE bot_name = ? AND chat_id = ?";
+    private static final String DELETE_VERSION = DELETE + " AND version = ?";
+    private static final String DELETE_IDLE = "DELETE FROM survey.bot_sessions WHERE bot_name = ? "
+            + "AND update_dt < LOCALTIMESTAMP - ? * INTERVAL '1 millisecond'";
+    private static final String COUNT = "SELECT count(*) FROM survey.bot_sessions WHERE bot_name = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public StoredBotSession find(String botName, long chatId, long idleTtlMillis) {
+        List<StoredBotSession> sessions = jdbcTemplate.query(FIND, (rs, rowNum) -> new StoredBotSession(
+                rs.getObject("user_id", Long.class),
+                rs.getObject("survey_group_id", Long.class),
+                rs.getInt("question_index"),
+                rs.getInt("progress_message_id"),
+                rs.getLong("version"),
+                rs.getBoolean("expired")), idleTtlMillis, botName, chatId);
+        return sessions.isEmpty() ? null : sessions.get(0);
+    }
+
+    public boolean exists(String botName, long chatId, long idleTtlMillis) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS, Boolean.class, botName, chatId, idleTtlMillis));
+    }
+
+    public long upsert(String botName, long chatId, Long userId, Long surveyGroupId, int questionIndex, int progressMessageId) {
+        return jdbcTemplate.queryForObject(UPSERT, Long.class, botName, chatId, userId, surveyGroupId, questionIndex, progressMessageId);
+    }
+
+    public boolean update(String botName, long chatId, Long userId, Long surveyGroupId, int questionIndex, int progressMessageId, long version) {
+        return jdbcTemplate.update(UPDATE, userId, surveyGroupId, questionIndex, progressMessageId, botName, chatId, version) == 1;
+    }
+
+    public void delete(String botName, long chatId) {
+        jdbcTemplate.update(DELETE, botName, chatId);
+    }
+
+    public boolean delete(String botName, long chatId, long version) {
+        return jdbcTemplate.update(DELETE_VERSION, botName, chatId, version) == 1;
+    }
+
+    public int deleteIdle(String botName, long idleMillis) {
+        return jdbcTemplate.update(DELETE_IDLE, botName, idleMillis);
+    }
+
+    public long count(String botName) {
+        return jdbcTemplate.queryForObject(COUNT, Long.class, botName);
+    }
+}
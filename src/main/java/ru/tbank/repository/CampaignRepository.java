@@ -0,0 +1,14 @@
+package ru.tbank.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.tbank.entity.Campaign;
+
+import java.util.List;
+
+@Repository
+public interface CampaignRepository extends JpaRepository<Campaign, Long> {
+    Campaign findByCampaignId(Long campaignId);
+
+    List<Campaign> findByStatus(Campaign.CampaignStatus status);
+}
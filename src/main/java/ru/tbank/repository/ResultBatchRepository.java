@@ -0,0 +1,9 @@
+package ru.tbank.repository;
+
+import ru.tbank.entity.Result;
+
+import java.util.List;
+
+public interface ResultBatchRepository {
+    int insertIgnoringDuplicates(List<Result> results);
+}
@@ -0,0 +1,40 @@
+package ru.tbank.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.tbank.entity.Result;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public class ResultBatchRepositoryImpl implements ResultBatchRepository {
+    private static final String INSERT = "INSERT INTO survey.results (user_id, survey_id, user_result, insert_dt) VALUES ";
+    private static final String VALUES_ROW = "(?, ?, ?, ?)";
+    private static final String ON_CONFLICT = " ON CONFLICT ON CONSTRAINT results_user_survey_key DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertIgnoringDuplicates(List<Result> results) {
+        if (results.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT.length() + results.size() * (VALUES_ROW.length() + 2) + ON_CONFLICT.length());
+        sql.append(INSERT);
+        Object[] args = new Object[results.size() * 4];
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(VALUES_ROW);
+            args[4 * i] = result.getUserId();
+            args[4 * i + 1] = result.getSurveyId();
+            args[4 * i + 2] = result.getUserResult();
+            args[4 * i + 3] = Timestamp.valueOf(result.getInsertDt());
+        }
+        sql.append(ON_CONFLICT);
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+}
@@ -1,11 +1,15 @@
 package ru.tbank.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.tbank.entity.Result;
 
+import java.util.Set;
+
 @Repository
-public interface ResultRepository extends JpaRepository<Result, Long> {
+public interface ResultRepository extends JpaRepository<Result, Long>, ResultBatchRepository {
     Result findByUserIdAndSurveyId(Long userId, Long surveyId);
 
     boolean existsByUserIdAndSurveyId(Long userId, Long surveyId);
@@ -13,4 +17,7 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
     boolean existsByResultId(Long resultId);
 
     Result findByResultId(Long resultId);
+
+    @Query("SELECT r.surveyId FROM Result r, Survey s WHERE r.surveyId = s.surveyId AND r.userId = :userId AND s.surveyGroupId = :surveyGroupId")
+    Set<Long> findSurveyIdsByUserIdAndSurveyGroupId(@Param("userId") Long userId, @Param("surveyGroupId") Long surveyGroupId);
 }
@@ -0,0 +1,15 @@
+package ru.tbank.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StoredBotSession {
+    private final Long userId;
+    private final Long surveyGroupId;
+    private final int questionIndex;
+    private final int progressMessageId;
+    private final long version;
+    private final boolean expired;
+}
@@ -1,14 +1,23 @@
 package ru.tbank.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.tbank.entity.SurveyGroup;
 
+import java.util.List;
+
 @Repository
 public interface SurveyGroupRepository extends JpaRepository<SurveyGroup, Long> {
     SurveyGroup findBySurveyGroupName(String surveyGroupName);
 
+    SurveyGroup findBySurveyGroupId(Long surveyGroupId);
+
     boolean existsBySurveyGroupName(String surveyGroupName);
 
     boolean existsBySurveyGroupId(Long surveyGroupId);
+
+    @Query("SELECT g FROM SurveyGroup g ORDER BY g.insertDt DESC, g.surveyGroupId DESC")
+    List<SurveyGroup> findRecent(Pageable pageable);
 }
@@ -0,0 +1,7 @@
+package ru.tbank.repository;
+
+public interface TgRecipient {
+    Long getUserId();
+
+    String getUsername();
+}
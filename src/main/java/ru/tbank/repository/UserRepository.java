@@ -1,10 +1,42 @@
 package ru.tbank.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.tbank.entity.User;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByUsername(String username);
+
+    @Query("SELECT u.userId AS userId, u.username AS username FROM User u WHERE u.tgFlg = true AND u.userId > :lastUserId " +
+            "AND (:allRegistered = true OR u.insertDt >= :registeredAfter) " +
+            "AND (:excludePassed = false OR NOT EXISTS (SELECT r.resultId FROM Result r, Survey s " +
+            "WHERE r.userId = u.userId AND r.surveyId = s.surveyId AND s.surveyGroupId = :surveyGroupId)) " +
+            "ORDER BY u.userId")
+    List<TgRecipient> findTgRecipients(@Param("lastUserId") long lastUserId, @Param("allRegistered") boolean allRegistered,
+                                       @Param("registeredAfter") LocalDateTime registeredAfter,
+                                       @Param("excludePassed") boolean excludePassed, @Param("surveyGroupId") Long surveyGroupId,
+                                       Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.tgFlg = true " +
+            "AND (:allRegistered = true OR u.insertDt >= :registeredAfter) " +
+            "AND (:excludePassed = false OR NOT EXISTS (SELECT r.resultId FROM Result r, Survey s " +
+            "WHERE r.userId = u.userId AND r.surveyId = s.surveyId AND s.surveyGroupId = :surveyGroupId))")
+    long countTgRecipients(@Param("allRegistered") boolean allRegistered, @Param("registeredAfter") LocalDateTime registeredAfter,
+                           @Param("excludePassed") boolean excludePassed, @Param("surveyGroupId") Long surveyGroupId);
+
+    @Transactional
+    @Query(value = "INSERT INTO security.users (user_name, tg_flg, tg_firstname, tg_lastname, tg_username, password, insert_dt) " +
+            "VALUES (:username, true, :tgFirstname, :tgLastname, :tgUsername, '-1', CURRENT_TIMESTAMP) " +
+            "ON CONFLICT ON CONSTRAINT users_user_name_key DO UPDATE SET user_name = EXCLUDED.user_name " +
+            "RETURNING user_id", nativeQuery = true)
+    Long upsertTgUser(@Param("username") String username, @Param("tgFirstname") String tgFirstname,
+                      @Param("tgLastname") String tgLastname, @Param("tgUsername") String tgUsername);
 }
@@ -2,11 +2,13 @@ package ru.tbank.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import ru.tbank.entity.Answer;
+import ru.tbank.event.SurveyChangedEvent;
 import ru.tbank.repository.AnswerSpecification;
 import ru.tbank.exception.EntityAlreadyExistsException;
 import ru.tbank.logging.LogExecutionTime;
@@ -25,6 +27,8 @@ import java.util.stream.Collectors;
 public class AnswerService {
     @Autowired
     private AnswerRepository answerRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public List<Answer> getAllAnswersInSurvey(Long surveyId) {
         log.info("Получение всех ответов опроса");
@@ -83,7 +87,9 @@ public class AnswerService {
                 throw new EntityAlreadyExistsException("Ответ уже содержится в опросе");
             } else {
                 answer.setInsertDt(LocalDateTime.now());
-                return answerRepository.save(answer);
+                Answer savedAnswer = answerRepository.save(answer);
+                eventPublisher.publishEvent(new SurveyChangedEvent(null, answer.getSurvey().getSurveyId()));
+                return savedAnswer;
             }
         } catch (EntityAlreadyExistsException e) {
             log.error(e.getMessage());
@@ -104,9 +110,12 @@ public class AnswerService {
                 log.warn("Ответ с таким ид не существует");
                 throw new EntityNotFoundException("Ответ с таким ид не существует");
             } else {
+                Long surveyId = answerRepository.findSurveyIdByAnswerId(answerId);
                 answer.setAnswerId(answerId);
                 answer.setInsertDt(LocalDateTime.now());
-                return answerRepository.save(answer);
+                Answer savedAnswer = answerRepository.save(answer);
+                eventPublisher.publishEvent(new SurveyChangedEvent(null, surveyId));
+                return savedAnswer;
             }
         } catch (EntityNotFoundException e) {
             log.error(e.getMessage());
@@ -124,7 +133,9 @@ public class AnswerService {
         log.info("Удаление ответа");
         try {
             if (answerRepository.existsByAnswerId(answerId)) {
+                Long surveyId = answerRepository.findSurveyIdByAnswerId(answerId);
                 answerRepository.deleteById(answerId);
+                eventPublisher.publishEvent(new SurveyChangedEvent(null, surveyId));
                 return true;
             } else {
                 throw new EntityNotFoundException("Ответ не найден");
@@ -0,0 +1,122 @@
+package ru.tbank.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import ru.tbank.dto.CampaignDTO;
+import ru.tbank.entity.Campaign;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.logging.LogExecutionTime;
+import ru.tbank.repository.CampaignRepository;
+import ru.tbank.repository.TgRecipient;
+import ru.tbank.repository.UserRepository;
+
+import javax.persistence.EntityNotFoundException;
+import javax.ws.rs.BadRequestException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@LogExecutionTime
+@Service
+public class CampaignService {
+    private static final LocalDateTime ANY_REGISTRATION = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private CampaignRepository campaignRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SurveyGroupService surveyGroupService;
+
+    public Campaign createCampaign(CampaignDTO campaignDTO) {
+        log.info("Создание рассылки опроса");
+        if (!StringUtils.hasText(campaignDTO.getSurveyGroupName())) {
+            log.error("Пустое название группы опросов рассылки");
+            throw new IllegalArgumentException("Название группы опросов должно быть не пусто");
+        }
+        try {
+            SurveyGroup surveyGroup = surveyGroupService.getSurveyGroupByName(campaignDTO.getSurveyGroupName());
+            Campaign campaign = new Campaign();
+            campaign.setSurveyGroupId(surveyGroup.getSurveyGroupId());
+            campaign.setBotName(StringUtils.hasText(campaignDTO.getBotName()) ? campaignDTO.getBotName() : null);
+            campaign.setRegisteredAfter(campaignDTO.getRegisteredAfter());
+            campaign.setExcludePassedFlg(campaignDTO.isExcludePassed());
+            campaign.setStatus(Campaign.CampaignStatus.RUNNING);
+            campaign.setTotalCount(userRepository.countTgRecipients(campaign.getRegisteredAfter() == null, registeredAfter(campaign),
+                    campaign.isExcludePassedFlg(), campaign.getSurveyGroupId()));
+            campaign.setInsertDt(LocalDateTime.now());
+            campaign.setUpdateDt(campaign.getInsertDt());
+            return campaignRepository.save(campaign);
+        } catch (EntityNotFoundException e) {
+            log.error(e.getMessage());
+            throw new EntityNotFoundException(e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            log.error("Ошибка создания рассылки опроса, ошибка вставки данных в таблицу: {}", e.getMessage());
+            throw new BadRequestException("Ошибка в данных запроса: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка создания рассылки опроса: {}", e.getMessage());
+            throw new RuntimeException("Ошибка создания рассылки опроса: " + e.getMessage());
+        }
+    }
+
+    public Campaign getCampaignById(Long campaignId) {
+        log.info("Получение рассылки опроса по ид");
+        try {
+            Campaign campaign = campaignRepository.findByCampaignId(campaignId);
+            if (campaign != null) {
+                return campaign;
+            } else {
+                throw new EntityNotFoundException("Рассылка с таким ид не найдена");
+            }
+        } catch (EntityNotFoundException e) {
+            log.error(e.getMessage());
+            throw new EntityNotFoundException(e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка получения рассылки опроса по ид: {}", e.getMessage());
+            throw new RuntimeException("Ошибка получения рассылки опроса по ид: " + e.getMessage());
+        }
+    }
+
+    public List<Campaign> getRunningCampaigns() {
+        log.info("Получение незавершенных рассылок опросов");
+        try {
+            return campaignRepository.findByStatus(Campaign.CampaignStatus.RUNNING);
+        } catch (Exception e) {
+            log.error("Ошибка получения незавершенных рассылок опросов: {}", e.getMessage());
+            throw new RuntimeException("Ошибка получения незавершенных рассылок опросов: " + e.getMessage());
+        }
+    }
+
+    public List<TgRecipient> getNextRecipients(Campaign campaign, int pageSize) {
+        log.info("Получение следующей страницы получателей рассылки");
+        try {
+            return userRepository.findTgRecipients(campaign.getLastUserId(), campaign.getRegisteredAfter() == null, registeredAfter(campaign),
+                    campaign.isExcludePassedFlg(), campaign.getSurveyGroupId(), PageRequest.of(0, pageSize));
+        } catch (Exception e) {
+            log.error("Ошибка получения получателей рассылки: {}", e.getMessage());
+            throw new RuntimeException("Ошибка получения получателей рассылки: " + e.getMessage());
+        }
+    }
+
+    public Campaign saveCampaign(Campaign campaign) {
+        log.info("Сохранение прогресса рассылки опроса");
+        try {
+            campaign.setUpdateDt(LocalDateTime.now());
+            return campaignRepository.save(campaign);
+        } catch (DataIntegrityViolationException e) {
+            log.error("Ошибка сохранения прогресса рассылки, ошибка вставки данных в таблицу: {}", e.getMessage());
+            throw new BadRequestException("Ошибка в данных запроса: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка сохранения прогресса рассылки: {}", e.getMessage());
+            throw new RuntimeException("Ошибка сохранения прогресса рассылки: " + e.getMessage());
+        }
+    }
+
+    private static LocalDateTime registeredAfter(Campaign campaign) {
+        return campaign.getRegisteredAfter() == null ? ANY_REGISTRATION : campaign.getRegisteredAfter();
+    }
+}
@@ -13,6 +13,8 @@ import ru.tbank.repository.ResultRepository;
 import javax.persistence.EntityNotFoundException;
 import javax.ws.rs.BadRequestException;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @LogExecutionTime
@@ -88,6 +90,32 @@ public class ResultService {
         }
     }
 
+    public int createResults(List<ResultDTO> resultDTOs) {
+        log.info("Пакетное добавление результатов опросов");
+        try {
+            LocalDateTime insertDt = LocalDateTime.now();
+            List<Result> results = resultDTOs.stream().map(resultDTO -> {
+                Result result = new Result();
+                result.setUserId(resultDTO.getUserId());
+                result.setSurveyId(resultDTO.getSurveyId());
+                result.setUserResult(resultDTO.getUserResult());
+                result.setInsertDt(insertDt);
+                return result;
+            }).toList();
+            int inserted = resultRepository.insertIgnoringDuplicates(results);
+            if (inserted < results.size()) {
+                log.warn("Пропущено повторных результатов: {}", results.size() - inserted);
+            }
+            return inserted;
+        } catch (DataIntegrityViolationException e) {
+            log.error("Ошибка пакетного добавления результатов, ошибка вставки данных в таблицу: {}", e.getMessage());
+            throw new BadRequestException("Ошибка в данных запроса: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка пакетного добавления результатов: {}", e.getMessage());
+            throw new RuntimeException("Ошибка пакетного добавления результатов: " + e.getMessage());
+        }
+    }
+
     public Result updateResult(Long resultId, ResultDTO resultDTO) {
         log.info("Обновление результата опроса юзера");
         try {
@@ -132,6 +160,19 @@ public class ResultService {
         }
     }
 
+    public Set<Long> getPassedSurveyIdsInGroup(Long userId, Long surveyGroupId) {
+        log.info("Получение пройденных юзером опросов группы");
+        try {
+            return resultRepository.findSurveyIdsByUserIdAndSurveyGroupId(userId, surveyGroupId);
+        } catch (BadRequestException e) {
+            log.error("Ошибка получения пройденных опросов группы: {}", e.getMessage());
+            throw new BadRequestException("Ошибка получения пройденных опросов группы: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка получения пройденных опросов группы: {}", e.getMessage());
+            throw new RuntimeException("Ошибка получения пройденных опросов группы: " + e.getMessage());
+        }
+    }
+
     public boolean checkResultExists(ResultDTO resultDTO) {
         log.info("Проверка что результат опроса уже получен");
         try {
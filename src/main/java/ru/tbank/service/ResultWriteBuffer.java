@@ -0,0 +1,138 @@
+package ru.tbank.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.tbank.dto.ResultDTO;
+
+import javax.annotation.PreDestroy;
+import javax.ws.rs.BadRequestException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Component
+public class ResultWriteBuffer {
+    private final ResultService resultService;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final BlockingQueue<ResultDTO> buffer;
+    private final List<ResultDTO> unsent = new ArrayList<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "result-writer"));
+    private final Timer flushTimer;
+    private final Counter writtenRows;
+    private final Counter duplicateRows;
+    private final Counter droppedRows;
+    private volatile boolean stopping;
+
+    public ResultWriteBuffer(ResultService resultService,
+                             @Value("${results.write-behind.capacity:10000}") int capacity,
+                             @Value("${results.write-behind.batch-size:500}") int batchSize,
+                             @Value("${results.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+                             @Value("${results.write-behind.offer-timeout-ms:1000}") long offerTimeoutMillis,
+                             MeterRegistry meterRegistry) {
+        this.resultService = resultService;
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        Gauge.builder("results.write-behind.buffer.size", buffer, BlockingQueue::size).register(meterRegistry);
+        this.flushTimer = Timer.builder("results.write-behind.flush").register(meterRegistry);
+        this.writtenRows = Counter.builder("results.write-behind.rows").tag("outcome", "inserted").register(meterRegistry);
+        this.duplicateRows = Counter.builder("results.write-behind.rows").tag("outcome", "duplicate").register(meterRegistry);
+        this.droppedRows = Counter.builder("results.write-behind.rows").tag("outcome", "dropped").register(meterRegistry);
+        writer.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void submit(ResultDTO resultDTO) {
+        if (stopping) {
+            write(List.of(resultDTO));
+            return;
+        }
+        try {
+            if (!buffer.offer(resultDTO, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("Буфер результатов переполнен, результат записывается напрямую");
+                write(List.of(resultDTO));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write(List.of(resultDTO));
+            return;
+        }
+        if (stopping) {
+            flush();
+        } else if (buffer.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+    }
+
+    public int size() {
+        return buffer.size();
+    }
+
+    public synchronized void flush() {
+        flushRequested.set(false);
+        try {
+            while (!unsent.isEmpty() || buffer.drainTo(unsent, batchSize) > 0) {
+                try {
+                    write(unsent);
+                } catch (BadRequestException | DataIntegrityViolationException e) {
+                    log.warn("Пакет результатов отклонен из-за ошибки в данных, запись по одному: {}", e.getMessage());
+                    writeRowByRow(unsent);
+                }
+                unsent.clear();
+            }
+        } catch (Exception e) {
+            log.error("Ошибка записи результатов, повтор при следующей выгрузке: {}", e.getMessage());
+        }
+    }
+
+    // Обработчики обновлений и таймеры вопросов останавливаются раньше (см. @DependsOn у UpdateDispatcher и TimeoutWheel),
+    // а результаты, пришедшие во время остановки, записываются напрямую
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+        if (buffer.size() + unsent.size() > 0) {
+            log.error("Остановка буфера результатов, не записано результатов: {}", buffer.size() + unsent.size());
+        }
+    }
+
+    private void writeRowByRow(List<ResultDTO> results) {
+        for (ResultDTO result : results) {
+            try {
+                write(List.of(result));
+            } catch (BadRequestException | DataIntegrityViolationException e) {
+                droppedRows.increment();
+                log.error("Результат пользователя {} на вопрос {} отброшен: {}", result.getUserId(), result.getSurveyId(), e.getMessage());
+            }
+        }
+    }
+
+    private void write(List<ResultDTO> results) {
+        long start = System.nanoTime();
+        int inserted = resultService.createResults(results);
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        writtenRows.increment(inserted);
+        duplicateRows.increment(results.size() - inserted);
+    }
+}
@@ -2,11 +2,14 @@ package ru.tbank.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import ru.tbank.dto.SurveyGroupDTO;
 import ru.tbank.entity.SurveyGroup;
+import ru.tbank.event.SurveyGroupChangedEvent;
 import ru.tbank.exception.EntityAlreadyExistsException;
 import ru.tbank.logging.LogExecutionTime;
 import ru.tbank.repository.SurveyGroupRepository;
@@ -22,6 +25,8 @@ import java.util.List;
 public class SurveyGroupService {
     @Autowired
     private SurveyGroupRepository surveyGroupRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public List<SurveyGroup> getAllSurveyGroups() {
         log.info("Получение всех групп опросов");
@@ -41,6 +46,16 @@ public class SurveyGroupService {
         }
     }
 
+    public List<SurveyGroup> getRecentSurveyGroups(int count) {
+        log.info("Получение последних созданных групп опросов");
+        try {
+            return surveyGroupRepository.findRecent(PageRequest.of(0, count));
+        } catch (Exception e) {
+            log.error("Ошибка получения последних созданных групп опросов: {}", e.getMessage());
+            throw new RuntimeException("Ошибка получения последних созданных групп опросов: " + e.getMessage());
+        }
+    }
+
     public SurveyGroup getSurveyGroupByName(String name) {
         log.info("Получение группы опросов по названию");
         try {
@@ -62,12 +77,31 @@ public class SurveyGroupService {
         }
     }
 
+    public SurveyGroup getSurveyGroupById(Long surveyGroupId) {
+        log.info("Получение группы опросов по ид");
+        try {
+            SurveyGroup surveyGroup = surveyGroupRepository.findBySurveyGroupId(surveyGroupId);
+            if (surveyGroup != null) {
+                return surveyGroup;
+            } else {
+                throw new EntityNotFoundException("Группа опросов с таким ид не найдена");
+            }
+        } catch (EntityNotFoundException e) {
+            log.error(e.getMessage());
+            throw new EntityNotFoundException(e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка получения группы опросов по ид: {}", e.getMessage());
+            throw new RuntimeException("Ошибка получения группы опросов по ид: " + e.getMessage());
+        }
+    }
+
     public SurveyGroup createSurveyGroup(SurveyGroupDTO surveyGroupDTO) {
         log.info("Добавление новой группы опросов");
         if (!StringUtils.hasText(surveyGroupDTO.getSurveyGroupName())) {
             log.error("Пустое название группы запросов");
             throw new IllegalArgumentException("Название должно быть не пусто");
         }
+        checkTimeLimit(surveyGroupDTO);
         try {
             if (surveyGroupRepository.existsBySurveyGroupName(surveyGroupDTO.getSurveyGroupName().toLowerCase())) {
                 throw new EntityAlreadyExistsException("Группа опросов с таким названием уже существует");
@@ -75,8 +109,11 @@ public class SurveyGroupService {
                 SurveyGroup surveyGroup = new SurveyGroup();
                 surveyGroup.setSurveyGroupName(surveyGroupDTO.getSurveyGroupName().toLowerCase());
                 surveyGroup.setSurveyTypeId(surveyGroupDTO.getSurveyTypeId());
+                surveyGroup.setTimeLimitSeconds(surveyGroupDTO.getTimeLimitSeconds());
                 surveyGroup.setInsertDt(LocalDateTime.now());
-                return surveyGroupRepository.save(surveyGroup);
+                SurveyGroup savedSurveyGroup = surveyGroupRepository.save(surveyGroup);
+                eventPublisher.publishEvent(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.CREATED, savedSurveyGroup));
+                return savedSurveyGroup;
             }
         } catch (EntityAlreadyExistsException e) {
             log.error(e.getMessage());
@@ -92,6 +129,7 @@ public class SurveyGroupService {
 
     public SurveyGroup updateSurveyGroup(String name, SurveyGroupDTO surveyGroupDTO) {
         log.info("Обновление группы опросов");
+        checkTimeLimit(surveyGroupDTO);
         try {
             if (!surveyGroupRepository.existsBySurveyGroupName(name.toLowerCase())) {
                 throw new EntityNotFoundException("Группа опросов с таким названием не существует");
@@ -102,8 +140,11 @@ public class SurveyGroupService {
                     SurveyGroup surveyGroup = surveyGroupRepository.findBySurveyGroupName(name.toLowerCase());
                     surveyGroup.setSurveyGroupName(surveyGroupDTO.getSurveyGroupName().toLowerCase());
                     surveyGroup.setSurveyTypeId(surveyGroupDTO.getSurveyTypeId());
+                    surveyGroup.setTimeLimitSeconds(surveyGroupDTO.getTimeLimitSeconds());
                     surveyGroup.setInsertDt(LocalDateTime.now());
-                    return surveyGroupRepository.save(surveyGroup);
+                    SurveyGroup savedSurveyGroup = surveyGroupRepository.save(surveyGroup);
+                    eventPublisher.publishEvent(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.UPDATED, savedSurveyGroup, name.toLowerCase()));
+                    return savedSurveyGroup;
                 }
             }
         } catch (EntityNotFoundException e) {
@@ -125,7 +166,9 @@ public class SurveyGroupService {
         log.info("Удаление группы опросов по названию");
         try {
             if (surveyGroupRepository.existsBySurveyGroupName(surveyGroupName.toLowerCase())) {
-                surveyGroupRepository.deleteById(surveyGroupRepository.findBySurveyGroupName(surveyGroupName).getSurveyGroupId());
+                SurveyGroup surveyGroup = surveyGroupRepository.findBySurveyGroupName(surveyGroupName);
+                surveyGroupRepository.deleteById(surveyGroup.getSurveyGroupId());
+                eventPublisher.publishEvent(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.DELETED, surveyGroup));
                 return true;
             } else {
                 throw new EntityNotFoundException("Группа опросов с таким названием не существует");
@@ -141,4 +184,12 @@ public class SurveyGroupService {
             throw new RuntimeException("Ошибка удаления группы опросов: " + e.getMessage());
         }
     }
+
+    private static void checkTimeLimit(SurveyGroupDTO surveyGroupDTO) {
+        Integer timeLimitSeconds = surveyGroupDTO.getTimeLimitSeconds();
+        if (timeLimitSeconds != null && (timeLimitSeconds < 5 || timeLimitSeconds > 600)) {
+            log.error("Недопустимое ограничение времени на вопрос: {}", timeLimitSeconds);
+            throw new IllegalArgumentException("Ограничение времени на вопрос должно быть от 5 до 600 секунд");
+        }
+    }
 }
@@ -2,11 +2,13 @@ package ru.tbank.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import ru.tbank.dto.SurveyDTO;
 import ru.tbank.entity.Survey;
+import ru.tbank.event.SurveyChangedEvent;
 import ru.tbank.exception.EntityAlreadyExistsException;
 import ru.tbank.logging.LogExecutionTime;
 import ru.tbank.repository.SurveyGroupRepository;
@@ -26,6 +28,8 @@ public class SurveyService {
     private SurveyRepository surveyRepository;
     @Autowired
     private SurveyGroupRepository surveyGroupRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public List<Survey> getAllSurveysInGroup(Long surveyGroupId) {
         log.info("Получение всех опросов группы");
@@ -113,7 +117,9 @@ public class SurveyService {
                     survey.setSurveyTypeId(surveyDTO.getSurveyTypeId());
                     survey.setSurveyGroupId(surveyGroupId);
                     survey.setInsertDt(LocalDateTime.now());
-                    return surveyRepository.save(survey);
+                    Survey savedSurvey = surveyRepository.save(survey);
+                    eventPublisher.publishEvent(new SurveyChangedEvent(surveyGroupId, savedSurvey.getSurveyId()));
+                    return savedSurvey;
                 }
             }
         } catch (EntityNotFoundException e) {
@@ -144,7 +150,9 @@ public class SurveyService {
                 survey.setSurveyQuestion(surveyDTO.getSurveyQuestion());
                 survey.setSurveyTypeId(surveyDTO.getSurveyTypeId());
                 survey.setInsertDt(LocalDateTime.now());
-                return surveyRepository.save(survey);
+                Survey savedSurvey = surveyRepository.save(survey);
+                eventPublisher.publishEvent(new SurveyChangedEvent(survey.getSurveyGroupId(), surveyId));
+                return savedSurvey;
             }
         } catch (EntityNotFoundException e) {
             log.error(e.getMessage());
@@ -166,6 +174,7 @@ public class SurveyService {
         try {
             if (surveyRepository.existsBySurveyId(surveyId)) {
                 surveyRepository.deleteById(surveyId);
+                eventPublisher.publishEvent(new SurveyChangedEvent(null, surveyId));
                 return true;
             } else {
                 throw new EntityNotFoundException("Опрос не найден");
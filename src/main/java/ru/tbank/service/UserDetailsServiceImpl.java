@@ -3,6 +3,7 @@ package ru.tbank.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import ru.tbank.dto.UserCreateDTO;
 import ru.tbank.entity.User;
+import ru.tbank.event.UserDeletedEvent;
 import ru.tbank.logging.LogExecutionTime;
 import ru.tbank.repository.UserRepository;
 
@@ -25,6 +27,8 @@ import java.util.List;
 public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserDetails loadUserByUsername(String username) {
@@ -85,6 +89,26 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
     }
 
+    public Long getOrCreateTgUserId(UserCreateDTO userCreateDTO) {
+        log.info("Получение ид пользователя из телеграма");
+        try {
+            String username = userCreateDTO.getUsername();
+            if (!StringUtils.hasText(username)) {
+                throw new IllegalArgumentException("Имя пользователя должно быть не пусто");
+            }
+            return userRepository.upsertTgUser(username, userCreateDTO.getTgFirstname(), userCreateDTO.getTgLastname(), userCreateDTO.getTgUsername());
+        } catch (IllegalArgumentException e) {
+            log.error(e.getMessage());
+            throw new IllegalArgumentException(e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            log.error("Ошибка получения ид пользователя из телеграма, ошибка работы с данными: {}", e.getMessage());
+            throw new BadRequestException("Ошибка в данных запроса: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка получения ид пользователя из телеграма: {}", e.getMessage());
+            throw new RuntimeException("Ошибка получения ид пользователя из телеграма: " + e.getMessage());
+        }
+    }
+
     public List<User> getAllUsers() {
         log.info("Получение всех пользователей");
         try {
@@ -109,6 +133,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             User user = userRepository.findByUsername(userName);
             if (user != null) {
                 userRepository.deleteById(user.getUserId());
+                eventPublisher.publishEvent(new UserDeletedEvent(user));
                 return true;
             } else {
                 throw new EntityNotFoundException("Пользователя с таким названием не существует");
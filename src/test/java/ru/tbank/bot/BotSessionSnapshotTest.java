@@ -0,0 +1,78 @@
+package ru.tbank.bot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.bot.entity.BotSurveySession;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BotSessionSnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private BotSurveyCache botSurveyCache;
+    private BotSurvey botSurvey;
+
+    @BeforeEach
+    void setUp() {
+        botSurveyCache = mock(BotSurveyCache.class);
+        botSurvey = mock(BotSurvey.class);
+        when(botSurvey.getSurveyGroupId()).thenReturn(5L);
+    }
+
+    @Test
+    void testRestore_InFlightSurvey() {
+        when(botSurveyCache.getSurvey(5L)).thenReturn(botSurvey);
+        BotSurveySession inSurvey = session(1L, 7L, botSurvey, 3);
+        inSurvey.setProgressMessageId(12);
+        BotSurveySession choosingSurvey = session(2L, 8L, null, 0);
+        snapshot().write(List.of(inSurvey, choosingSurvey));
+
+        BotSessionSnapshot restarted = snapshot();
+        BotSurveySession restored = restarted.restore(1L);
+
+        assertEquals(7L, restored.getUserId());
+        assertSame(botSurvey, restored.getBotSurvey());
+        assertEquals(3, restored.getCurrentQuestionIndex());
+        assertEquals(12, restored.getProgressMessageId());
+        assertNull(restarted.restore(1L), "Сессия восстанавливается один раз");
+        assertNull(restarted.restore(2L).getBotSurvey());
+        assertNull(restarted.restore(3L));
+    }
+
+    @Test
+    void testWrite_KeepsNotRestoredSessions() {
+        snapshot().write(List.of(session(1L, 7L, null, 0), session(2L, 8L, null, 0), session(3L, 9L, null, 0)));
+
+        BotSessionSnapshot restarted = snapshot();
+        restarted.restore(1L);
+        restarted.discard(2L);
+        restarted.write(List.of());
+
+        BotSessionSnapshot restartedAgain = snapshot();
+        assertNull(restartedAgain.restore(1L));
+        assertNull(restartedAgain.restore(2L));
+        assertEquals(9L, restartedAgain.restore(3L).getUserId());
+    }
+
+    private BotSessionSnapshot snapshot() {
+        return new BotSessionSnapshot(tempDir.resolve("sessions.snapshot").toString(), 30, botSurveyCache);
+    }
+
+    private static BotSurveySession session(long chatId, Long userId, BotSurvey botSurvey, int questionIndex) {
+        BotSurveySession session = new BotSurveySession(chatId);
+        session.setUserId(userId);
+        session.setBotSurvey(botSurvey);
+        session.setCurrentQuestionIndex(questionIndex);
+        return session;
+    }
+}
@@ -0,0 +1,135 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.entity.Answer;
+import ru.tbank.entity.Survey;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.entity.SurveyType;
+import ru.tbank.event.SurveyChangedEvent;
+import ru.tbank.event.SurveyGroupChangedEvent;
+import ru.tbank.service.SurveyGroupService;
+import ru.tbank.service.SurveyService;
+import ru.tbank.service.SurveyTypeService;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BotSurveyCacheTest {
+    private SurveyTypeService surveyTypeService;
+    private SurveyGroupService surveyGroupService;
+    private SurveyService surveyService;
+    private BotSurveyCache botSurveyCache;
+    private SurveyGroup surveyGroup;
+
+    @BeforeEach
+    void setUp() {
+        surveyTypeService = mock(SurveyTypeService.class);
+        surveyGroupService = mock(SurveyGroupService.class);
+        surveyService = mock(SurveyService.class);
+        botSurveyCache = new BotSurveyCache(surveyTypeService, surveyGroupService, surveyService, 100, 30, new SimpleMeterRegistry());
+
+        surveyGroup = new SurveyGroup();
+        surveyGroup.setSurveyGroupId(1L);
+        surveyGroup.setSurveyGroupName("викторина");
+        surveyGroup.setSurveyTypeId(3L);
+        Survey survey = new Survey();
+        survey.setSurveyId(10L);
+        survey.setSurveyQuestion("Вопрос?");
+        survey.setAnswers(List.of(answer(100L, "Да"), answer(101L, "Нет")));
+        when(surveyGroupService.getSurveyGroupByName("викторина")).thenReturn(surveyGroup);
+        when(surveyGroupService.getSurveyGroupById(1L)).thenReturn(surveyGroup);
+        when(surveyService.getAllSurveysInGroupWithAnswers(1L)).thenReturn(List.of(survey));
+        when(surveyTypeService.getSurveyTypeById(3L)).thenReturn(new SurveyType());
+    }
+
+    @Test
+    void testGetSurvey_LoadsOnce() {
+        BotSurvey first = botSurveyCache.getSurvey("Викторина");
+        BotSurvey second = botSurveyCache.getSurvey("викторина");
+
+        assertSame(first, second);
+        assertEquals(1L, first.getSurveyGroupId());
+        assertEquals(1, first.getBotPolls().size());
+        verify(surveyService, times(1)).getAllSurveysInGroupWithAnswers(1L);
+        verify(surveyTypeService, times(1)).getSurveyTypeById(3L);
+        assertEquals(1, botSurveyCache.getStats().hitCount());
+        assertEquals(1, botSurveyCache.getStats().missCount());
+    }
+
+    @Test
+    void testGetSurvey_ByIdSharesEntryWithName() {
+        BotSurvey byId = botSurveyCache.getSurvey(1L);
+        BotSurvey byName = botSurveyCache.getSurvey("Викторина");
+
+        assertSame(byId, byName);
+        assertSame(byId, botSurveyCache.getSurvey(1L));
+        assertEquals("викторина", byId.getSurveyName());
+        verify(surveyService, times(1)).getAllSurveysInGroupWithAnswers(1L);
+        verify(surveyGroupService, times(1)).getSurveyGroupByName("викторина");
+    }
+
+    @Test
+    void testGetSurvey_RenamedGroupResolvedAgain() {
+        botSurveyCache.getSurvey("викторина");
+        botSurveyCache.getSurvey("викторина");
+        botSurveyCache.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.UPDATED, surveyGroup, "викторина"));
+        botSurveyCache.getSurvey("викторина");
+
+        verify(surveyGroupService, times(2)).getSurveyGroupByName("викторина");
+    }
+
+    @Test
+    void testGetSurvey_UnknownNameNotCached() {
+        when(surveyGroupService.getSurveyGroupByName("нет")).thenThrow(new EntityNotFoundException("Группа опросов с таким названием не найдена"));
+
+        assertThrows(EntityNotFoundException.class, () -> botSurveyCache.getSurvey("нет"));
+        assertThrows(EntityNotFoundException.class, () -> botSurveyCache.getSurvey("нет"));
+        verify(surveyGroupService, times(2)).getSurveyGroupByName("нет");
+    }
+
+    @Test
+    void testInvalidate_OnSurveyGroupChanged() {
+        BotSurvey first = botSurveyCache.getSurvey("викторина");
+        botSurveyCache.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.UPDATED, surveyGroup, "викторина"));
+        BotSurvey second = botSurveyCache.getSurvey("викторина");
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void testInvalidate_OnSurveyChanged() {
+        BotSurvey first = botSurveyCache.getSurvey("викторина");
+        botSurveyCache.onSurveyChanged(new SurveyChangedEvent(null, 99L));
+        assertSame(first, botSurveyCache.getSurvey("викторина"));
+
+        botSurveyCache.onSurveyChanged(new SurveyChangedEvent(null, 10L));
+        assertNotSame(first, botSurveyCache.getSurvey("викторина"));
+    }
+
+    @Test
+    void testInvalidate_OnSurveyAddedToGroup() {
+        BotSurvey first = botSurveyCache.getSurvey("викторина");
+        botSurveyCache.onSurveyChanged(new SurveyChangedEvent(1L, 11L));
+
+        assertNotSame(first, botSurveyCache.getSurvey("викторина"));
+    }
+
+    private static Answer answer(long answerId, String text) {
+        Answer answer = new Answer();
+        answer.setAnswerId(answerId);
+        answer.setAnswer(text);
+        return answer;
+    }
+}
@@ -1,9 +1,12 @@
 package ru.tbank.bot;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.polls.SendPoll;
 import ru.tbank.bot.entity.BotPoll;
 import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.bot.entity.PreparedSendPoll;
 import ru.tbank.entity.Answer;
 import ru.tbank.entity.Survey;
 import ru.tbank.entity.SurveyGroup;
@@ -16,7 +19,10 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -58,9 +64,7 @@ class BotSurveyTest {
         when(survey.getSurveyId()).thenReturn(1L);
         when(survey.getSurveyQuestion()).thenReturn("Question?");
 
-        Answer answer1 = new Answer();
-        Answer answer2 = new Answer();
-        List<Answer> answers = List.of(answer1, answer2);
+        List<Answer> answers = List.of(answer(10L, "Да", false), answer(11L, "Нет", true));
         when(survey.getAnswers()).thenReturn(answers);
 
         when(surveyService.getAllSurveysInGroupWithAnswers(1L)).thenReturn(List.of(survey));
@@ -73,6 +77,90 @@ class BotSurveyTest {
         BotPoll botPoll = botSurvey.getBotPolls().get(0);
         assertEquals("Question?", botPoll.getQuestion());
         assertEquals(2, botPoll.getOptions().size());
+        assertEquals(1, botPoll.getCorrectAnswer());
+        assertEquals(11L, botPoll.getAnswerId(1));
+    }
+
+    @Test
+    void testBotSurveyBuilder_SharesOptionTextsAndIds() {
+        SurveyGroup surveyGroup = new SurveyGroup();
+        surveyGroup.setSurveyGroupId(1L);
+        surveyGroup.setSurveyTypeId(2L);
+        when(surveyGroupService.getSurveyGroupByName("TestSurvey")).thenReturn(surveyGroup);
+        Survey first = new Survey();
+        first.setSurveyId(2L);
+        first.setSurveyQuestion("Первый?");
+        first.setAnswers(List.of(answer(20L, new String("Да"), true), answer(21L, new String("Нет"), true)));
+        Survey second = new Survey();
+        second.setSurveyId(1L);
+        second.setSurveyQuestion("Второй?");
+        second.setAnswers(List.of(answer(10L, new String("Да"), false), answer(11L, new String("Нет"), false)));
+        when(surveyService.getAllSurveysInGroupWithAnswers(1L)).thenReturn(List.of(first, second));
+        when(surveyTypeService.getSurveyTypeById(2L)).thenReturn(new SurveyType());
+
+        BotSurvey botSurvey = new BotSurvey.BotSurveyBuilder("TestSurvey", surveyTypeService, surveyGroupService, surveyService).build();
+
+        BotPoll firstPoll = botSurvey.getBotPolls().get(0);
+        BotPoll secondPoll = botSurvey.getBotPolls().get(1);
+        assertSame(firstPoll.getOptions().get(0), secondPoll.getOptions().get(0), "Тексты вариантов общие для всех вопросов");
+        assertTrue(firstPoll.isCorrect(0) && firstPoll.isCorrect(1));
+        assertFalse(secondPoll.isCorrect(0));
+        assertEquals("[21]", firstPoll.toPollTarget(7L).getUserResult(List.of(1)));
+        assertTrue(botSurvey.containsSurvey(1L) && botSurvey.containsSurvey(2L));
+        assertFalse(botSurvey.containsSurvey(3L));
+    }
+
+    @Test
+    void testBotPoll_PreparedSendPollSerializedAsSendPoll() throws Exception {
+        BotPoll botPoll = new BotPoll(1L, "Вопрос \"с кавычками\"?", List.of(answer(10L, "Да", false), answer(11L, "Нет", true)), true, true, 30);
+        SendPoll sendPoll = new SendPoll();
+        sendPoll.setChatId(4101L);
+        sendPoll.setQuestion(botPoll.getQuestion());
+        sendPoll.setOptions(botPoll.getOptions());
+        sendPoll.setIsAnonymous(false);
+        sendPoll.setType("quiz");
+        sendPoll.setCorrectOptionId(1);
+        sendPoll.setAllowMultipleAnswers(true);
+        sendPoll.setOpenPeriod(30);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        PreparedSendPoll prepared = botPoll.toSendPoll(4101L);
+
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsString(sendPoll)), objectMapper.readTree(objectMapper.writeValueAsString(prepared)));
+        assertEquals(sendPoll.getMethod(), prepared.getMethod());
+        assertSame(botPoll.getOptions(), botPoll.toSendPoll(1L).getOptions());
+    }
+
+    @Test
+    void testBotPoll_InvalidSendPollRejected() {
+        List<Answer> answers = List.of(answer(10L, "Да", false), answer(11L, "Нет", true));
+
+        assertThrows(IllegalStateException.class, () -> new BotPoll(1L, "", answers, false, false, 0));
+        assertThrows(IllegalStateException.class, () -> new BotPoll(1L, "Вопрос?", answers, false, false, 601));
+        assertThrows(IllegalStateException.class, () -> new BotPoll(1L, "Вопрос?", answers, false, false, 3));
+    }
+
+    @Test
+    void testBotSurveyBuilder_SkipsQuestionRejectedByTelegram() {
+        SurveyGroup surveyGroup = new SurveyGroup();
+        surveyGroup.setSurveyGroupId(1L);
+        surveyGroup.setSurveyTypeId(2L);
+        when(surveyGroupService.getSurveyGroupByName("TestSurvey")).thenReturn(surveyGroup);
+        Survey empty = new Survey();
+        empty.setSurveyId(1L);
+        empty.setSurveyQuestion("");
+        empty.setAnswers(List.of(answer(10L, "Да", false), answer(11L, "Нет", false)));
+        Survey valid = new Survey();
+        valid.setSurveyId(2L);
+        valid.setSurveyQuestion("Question?");
+        valid.setAnswers(List.of(answer(12L, "Да", false), answer(13L, "Нет", false)));
+        when(surveyService.getAllSurveysInGroupWithAnswers(1L)).thenReturn(List.of(empty, valid));
+        when(surveyTypeService.getSurveyTypeById(2L)).thenReturn(new SurveyType());
+
+        BotSurvey botSurvey = new BotSurvey.BotSurveyBuilder("TestSurvey", surveyTypeService, surveyGroupService, surveyService).build();
+
+        assertEquals(1, botSurvey.getBotPolls().size());
+        assertEquals("Question?", botSurvey.getBotPolls().get(0).getQuestion());
     }
 
     @Test
@@ -98,4 +186,12 @@ class BotSurveyTest {
         assertNotNull(botSurvey.getBotPolls());
         assertTrue(botSurvey.getBotPolls().isEmpty());
     }
+
+    private static Answer answer(long answerId, String text, boolean correct) {
+        Answer answer = new Answer();
+        answer.setAnswerId(answerId);
+        answer.setAnswer(text);
+        answer.setCorrectFlg(correct);
+        return answer;
+    }
 }
@@ -0,0 +1,57 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import ru.tbank.dto.UserCreateDTO;
+import ru.tbank.entity.User;
+import ru.tbank.event.UserDeletedEvent;
+import ru.tbank.service.UserDetailsServiceImpl;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BotUserCacheTest {
+    private UserDetailsServiceImpl userService;
+    private BotUserCache botUserCache;
+    private Chat chat;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserDetailsServiceImpl.class);
+        botUserCache = new BotUserCache(userService, 100, new SimpleMeterRegistry());
+        chat = new Chat();
+        chat.setId(4101L);
+        chat.setType("private");
+        chat.setFirstName("Иван");
+        when(userService.getOrCreateTgUserId(any(UserCreateDTO.class))).thenReturn(7L);
+    }
+
+    @Test
+    void testGetUserId_LoadsOnce() {
+        assertEquals(7L, botUserCache.getUserId(chat));
+        assertEquals(7L, botUserCache.getUserId(chat));
+
+        verify(userService, times(1)).getOrCreateTgUserId(any(UserCreateDTO.class));
+        assertEquals(1, botUserCache.getStats().hitCount());
+        assertEquals(1, botUserCache.getStats().missCount());
+    }
+
+    @Test
+    void testInvalidate_OnUserDeleted() {
+        botUserCache.getUserId(chat);
+        User user = new User("4101", true, "Иван", null, null, "-1", LocalDateTime.now());
+        user.setUserId(7L);
+        botUserCache.onUserDeleted(new UserDeletedEvent(user));
+        botUserCache.getUserId(chat);
+
+        verify(userService, times(2)).getOrCreateTgUserId(any(UserCreateDTO.class));
+    }
+}
@@ -0,0 +1,145 @@
+package ru.tbank.bot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.dto.CampaignProgressDTO;
+import ru.tbank.entity.Campaign;
+import ru.tbank.repository.TgRecipient;
+import ru.tbank.service.CampaignService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CampaignRunnerTest {
+    private static final long CAMPAIGN_ID = 1L;
+    private static final long SURVEY_GROUP_ID = 5L;
+
+    private SurveyBot surveyBot;
+    private CampaignService campaignService;
+    private CampaignRunner campaignRunner;
+    private Campaign campaign;
+    private BotSurvey botSurvey;
+    private final List<Long> requestedAfterUserIds = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        surveyBot = mock(SurveyBot.class);
+        when(surveyBot.getBotUsername()).thenReturn("survey_bot");
+        campaignService = mock(CampaignService.class);
+        BotSurveyCache botSurveyCache = mock(BotSurveyCache.class);
+        campaignRunner = new CampaignRunner(new SurveyBots(List.of(surveyBot)), campaignService, botSurveyCache, 1000, 1000, 10, 2, 1);
+
+        botSurvey = mock(BotSurvey.class);
+        when(botSurveyCache.getSurvey(SURVEY_GROUP_ID)).thenReturn(botSurvey);
+
+        campaign = new Campaign();
+        campaign.setCampaignId(CAMPAIGN_ID);
+        campaign.setSurveyGroupId(SURVEY_GROUP_ID);
+        campaign.setStatus(Campaign.CampaignStatus.RUNNING);
+        campaign.setTotalCount(3);
+        when(campaignService.getCampaignById(CAMPAIGN_ID)).thenReturn(campaign);
+        when(campaignService.saveCampaign(any(Campaign.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(campaignService.getNextRecipients(eq(campaign), anyInt())).thenAnswer(invocation -> {
+            long lastUserId = campaign.getLastUserId();
+            requestedAfterUserIds.add(lastUserId);
+            if (lastUserId == 0) {
+                return List.of(recipient(1L, "101"), recipient(2L, "admin"));
+            } else if (lastUserId == 2) {
+                return List.of(recipient(3L, "103"));
+            }
+            return List.of();
+        });
+        when(surveyBot.pushSurvey(eq(101L), eq(1L), any(BotSurvey.class))).thenReturn(CompletableFuture.completedFuture(new Message()));
+        when(surveyBot.pushSurvey(eq(103L), eq(3L), any(BotSurvey.class))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("blocked")));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        campaignRunner.shutdown();
+    }
+
+    @Test
+    void testStart_PagesThroughRecipientsAndFinishes() throws InterruptedException {
+        campaignRunner.start(campaign);
+        CampaignProgressDTO progress = awaitStatus(Campaign.CampaignStatus.FINISHED);
+
+        assertEquals(List.of(0L, 2L, 3L), requestedAfterUserIds, "Каждая страница читается после сохраненной позиции");
+        assertEquals(1, progress.getSent());
+        assertEquals(1, progress.getFailed());
+        assertEquals(1, progress.getSkipped(), "Пользователь без ид чата пропущен");
+        assertEquals(0, progress.getRemaining());
+        assertEquals(3L, campaign.getLastUserId());
+    }
+
+    @Test
+    void testResume_ContinuesFromCheckpoint() throws InterruptedException {
+        campaign.setStatus(Campaign.CampaignStatus.STOPPED);
+        campaign.setLastUserId(2L);
+        campaign.setSentCount(1);
+        campaign.setSkippedCount(1);
+
+        campaignRunner.resume(CAMPAIGN_ID);
+        CampaignProgressDTO progress = awaitStatus(Campaign.CampaignStatus.FINISHED);
+
+        assertEquals(List.of(2L, 3L), requestedAfterUserIds);
+        verify(surveyBot, never()).pushSurvey(eq(101L), anyLong(), any(BotSurvey.class));
+        assertEquals(1, progress.getSent());
+        assertEquals(1, progress.getFailed());
+        assertEquals(1, progress.getSkipped());
+    }
+
+    @Test
+    void testStop_NotRunningCampaignMarkedStopped() {
+        CampaignProgressDTO progress = campaignRunner.stop(CAMPAIGN_ID);
+
+        assertEquals(Campaign.CampaignStatus.STOPPED, progress.getStatus());
+        verify(campaignService).saveCampaign(campaign);
+    }
+
+    @Test
+    void testResume_FinishedCampaign() {
+        campaign.setStatus(Campaign.CampaignStatus.FINISHED);
+
+        assertThrows(IllegalArgumentException.class, () -> campaignRunner.resume(CAMPAIGN_ID));
+    }
+
+    private CampaignProgressDTO awaitStatus(Campaign.CampaignStatus status) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            CampaignProgressDTO progress = campaignRunner.getProgress(CAMPAIGN_ID);
+            if (progress.getStatus() == status) {
+                return progress;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Рассылка не перешла в статус " + status);
+    }
+
+    private static TgRecipient recipient(Long userId, String username) {
+        return new TgRecipient() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+        };
+    }
+}
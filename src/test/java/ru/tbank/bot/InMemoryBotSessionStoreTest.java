@@ -0,0 +1,68 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.tbank.bot.entity.BotSurveySession;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryBotSessionStoreTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong ticker = new AtomicLong();
+    private InMemoryBotSessionStore sessionStore;
+
+    @BeforeEach
+    void setUp() {
+        sessionStore = new InMemoryBotSessionStore("survey_bot", 30, 3, 60, 30, new BotSessionSnapshot("", 30, null), ticker::get, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionStore.shutdown();
+    }
+
+    @Test
+    void testIdleSession_Expired() {
+        sessionStore.put(new BotSurveySession(1L));
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(20));
+        assertNotNull(sessionStore.get(1L));
+
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(20));
+        assertNotNull(sessionStore.get(1L), "Обращение продлевает сессию");
+
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(31));
+        sessionStore.cleanUp();
+        assertNull(sessionStore.get(1L));
+        assertTrue(sessionStore.consumeExpired(1L));
+        assertFalse(sessionStore.consumeExpired(1L), "Уведомление об истечении отправляется один раз");
+    }
+
+    @Test
+    void testRemovedSession_NotExpired() {
+        sessionStore.put(new BotSurveySession(1L));
+        sessionStore.remove(1L);
+
+        assertFalse(sessionStore.consumeExpired(1L));
+    }
+
+    @Test
+    void testMaxSize_Evicted() {
+        for (long chatId = 1; chatId <= 10; chatId++) {
+            sessionStore.put(new BotSurveySession(chatId));
+        }
+        sessionStore.cleanUp();
+
+        assertEquals(3, sessionStore.size());
+        assertEquals(3.0, meterRegistry.get("bot.sessions.live").tag("bot", "survey_bot").gauge().value());
+        assertTrue(meterRegistry.get("bot.sessions.heap").gauge().value() > 0);
+    }
+}
@@ -0,0 +1,109 @@
+package ru.tbank.bot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.methods.botapimethods.BotApiMethodMessage;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.ApiResponse;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboundMessageQueueTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OutboundMessageQueue outboundMessageQueue;
+
+    @AfterEach
+    void tearDown() {
+        outboundMessageQueue.shutdown();
+    }
+
+    @Test
+    void testSend_KeepsOrderWithinChat() throws Exception {
+        outboundMessageQueue = new OutboundMessageQueue(1000, 3, 10_000, 10_000, 10_000, 10_000, meterRegistry);
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        AbsSender sender = mock(AbsSender.class);
+        when(sender.executeAsync(any(BotApiMethodMessage.class))).thenAnswer(invocation -> {
+            sent.add(((SendMessage) invocation.getArgument(0)).getText());
+            return CompletableFuture.supplyAsync(Message::new);
+        });
+
+        List<CompletableFuture<Message>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            results.add(outboundMessageQueue.send(sender, 42L, message(String.valueOf(i))));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(String.valueOf(i), sent.get(i));
+        }
+        assertEquals(0, outboundMessageQueue.getQueueDepth());
+        assertEquals(200, meterRegistry.get("bot.outbound.send").timer().count());
+    }
+
+    @Test
+    void testSend_PerChatRateLimit() throws Exception {
+        outboundMessageQueue = new OutboundMessageQueue(1000, 3, 1000, 1000, 20, 1, meterRegistry);
+        AbsSender sender = mock(AbsSender.class);
+        when(sender.executeAsync(any(BotApiMethodMessage.class))).thenReturn(CompletableFuture.completedFuture(new Message()));
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Message>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(outboundMessageQueue.send(sender, 42L, message("текст")));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 180, "Четыре сообщения ждут токены чата");
+    }
+
+    @Test
+    void testSend_RetriesAfterTooManyRequests() throws Exception {
+        outboundMessageQueue = new OutboundMessageQueue(1000, 3, 1000, 1000, 1000, 1000, meterRegistry);
+        AbsSender sender = mock(AbsSender.class);
+        ApiResponse<?> response = new ObjectMapper().readValue(
+                "{\"ok\":false,\"error_code\":429,\"description\":\"Too Many Requests\",\"parameters\":{\"retry_after\":0}}", ApiResponse.class);
+        TelegramApiRequestException tooManyRequests = new TelegramApiRequestException("Too Many Requests", response);
+        Message message = new Message();
+        when(sender.executeAsync(any(BotApiMethodMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(tooManyRequests))
+                .thenReturn(CompletableFuture.completedFuture(message));
+
+        assertEquals(message, outboundMessageQueue.send(sender, 42L, message("текст")).get(10, TimeUnit.SECONDS));
+        assertEquals(0.0, meterRegistry.get("bot.outbound.dropped").tag("reason", "failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("bot.outbound.errors").tags("method", "sendmessage", "error_code", "429").counter().count());
+    }
+
+    @Test
+    void testSend_DropsWhenQueueFull() throws Exception {
+        outboundMessageQueue = new OutboundMessageQueue(1, 3, 1000, 1000, 1000, 1000, meterRegistry);
+        AbsSender sender = mock(AbsSender.class);
+        when(sender.executeAsync(any(BotApiMethodMessage.class))).thenReturn(new CompletableFuture<>());
+
+        outboundMessageQueue.send(sender, 42L, message("первое"));
+        CompletableFuture<Message> dropped = outboundMessageQueue.send(sender, 43L, message("второе"));
+
+        assertThrows(ExecutionException.class, () -> dropped.get(1, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("bot.outbound.dropped").tag("reason", "overflow").counter().count());
+    }
+
+    private static SendMessage message(String text) {
+        return new SendMessage("42", text);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.polls.Poll;
+import ru.tbank.bot.entity.BotPoll;
+import ru.tbank.bot.entity.PollTarget;
+import ru.tbank.entity.Answer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PollIndexTest {
+    private final PollIndex pollIndex = new PollIndex(100, 24, new SimpleMeterRegistry());
+
+    @Test
+    void testRegister_ResolvesPollTarget() {
+        pollIndex.register(pollMessage("poll-1"), 7L, new BotPoll(10L, "Вопрос?", List.of(answer(100L), answer(101L)), true, false, 0));
+
+        PollTarget pollTarget = pollIndex.get("poll-1");
+        assertEquals(7L, pollTarget.getUserId());
+        assertEquals(10L, pollTarget.getSurveyId());
+        assertArrayEquals(new long[]{100L, 101L}, pollTarget.getAnswerIds());
+        assertEquals("[101, 100]", pollTarget.getUserResult(List.of(1, 0)));
+    }
+
+    @Test
+    void testRegister_IgnoresMessageWithoutPoll() {
+        pollIndex.register(new Message(), 7L, new BotPoll(10L, "Вопрос?", List.of(answer(100L), answer(101L)), false, false, 0));
+        pollIndex.register(null, 7L, new BotPoll(10L, "Вопрос?", List.of(answer(100L), answer(101L)), false, false, 0));
+
+        assertEquals(0, pollIndex.size());
+        assertNull(pollIndex.get("poll-1"));
+    }
+
+    private static Message pollMessage(String pollId) {
+        Poll poll = new Poll();
+        poll.setId(pollId);
+        Message message = new Message();
+        message.setPoll(poll);
+        return message;
+    }
+
+    private static Answer answer(Long answerId) {
+        Answer answer = new Answer();
+        answer.setAnswerId(answerId);
+        answer.setAnswer("Ответ " + answerId);
+        return answer;
+    }
+}
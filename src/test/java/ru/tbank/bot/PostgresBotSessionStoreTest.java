@@ -0,0 +1,188 @@
+package ru.tbank.bot;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.bot.entity.BotSurveySession;
+import ru.tbank.repository.BotSessionRepository;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Testcontainers
+class PostgresBotSessionStoreTest {
+    private static final long CHAT_ID = 4101L;
+    private static final long USER_ID = 7L;
+    private static final int ROUNDS = 2000;
+
+    @Container
+    public static PostgreSQLContainer<?> pgDB = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("kudago_test")
+            .withUsername("pguser_test")
+            .withPassword("pgpwd_test");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static long surveyGroupId;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BotSessionRepository repository;
+    private BotSurveyCache botSurveyCache;
+    private BotSurvey botSurvey;
+    private PostgresBotSessionStore node1;
+    private PostgresBotSessionStore node2;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(pgDB.getJdbcUrl());
+        dataSource.setUsername(pgDB.getUsername());
+        dataSource.setPassword(pgDB.getPassword());
+        try (Connection connection = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            new Liquibase("db_changelog.xml", new ClassLoaderResourceAccessor(), database).update(new Contexts());
+        }
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        surveyGroupId = jdbcTemplate.queryForObject(
+                "INSERT INTO survey.survey_groups (survey_group_name) VALUES ('викторина') RETURNING survey_group_id", Long.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM survey.bot_sessions");
+        repository = new BotSessionRepository();
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+        botSurvey = mock(BotSurvey.class);
+        when(botSurvey.getSurveyGroupId()).thenReturn(surveyGroupId);
+        botSurveyCache = mock(BotSurveyCache.class);
+        when(botSurveyCache.getSurvey(surveyGroupId)).thenReturn(botSurvey);
+        node1 = new PostgresBotSessionStore("survey_bot", 30, 1000, 3600, 60000, repository, botSurveyCache, meterRegistry);
+        node2 = new PostgresBotSessionStore("survey_bot", 30, 1000, 3600, 60000, repository, botSurveyCache, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        node1.shutdown();
+        node2.shutdown();
+    }
+
+    @Test
+    void testGet_SessionVisibleOnAnotherNode() {
+        node1.put(session(2));
+        BotSurveySession session = node1.get(CHAT_ID);
+        session.incrementCurrentQuestionIndex();
+        session.setProgressMessageId(41);
+        node1.save(session);
+
+        BotSurveySession restored = node2.get(CHAT_ID);
+        assertEquals(USER_ID, restored.getUserId());
+        assertSame(botSurvey, restored.getBotSurvey());
+        assertEquals(3, restored.getCurrentQuestionIndex());
+        assertEquals(41, restored.getProgressMessageId());
+        assertEquals(1, restored.getVersion());
+        assertTrue(node2.isActive(CHAT_ID));
+        assertEquals(1, node2.size());
+    }
+
+    @Test
+    void testSave_StaleVersionRejected() {
+        node1.put(session(0));
+        BotSurveySession first = node1.get(CHAT_ID);
+        BotSurveySession second = node2.get(CHAT_ID);
+
+        first.incrementCurrentQuestionIndex();
+        node1.save(first);
+        second.setCurrentQuestionIndex(5);
+        node2.save(second);
+
+        assertEquals(1.0, meterRegistry.get("bot.sessions.conflicts").counter().count());
+        assertEquals(1, node2.get(CHAT_ID).getCurrentQuestionIndex(), "Узел перечитывает сессию после конфликта");
+    }
+
+    @Test
+    void testRemove_AndIdleExpiry() {
+        node1.put(session(1));
+        node1.remove(CHAT_ID);
+        assertNull(node2.get(CHAT_ID));
+
+        node1.put(session(1));
+        jdbcTemplate.update("UPDATE survey.bot_sessions SET update_dt = LOCALTIMESTAMP - INTERVAL '31 minutes'");
+        PostgresBotSessionStore node3 = new PostgresBotSessionStore("survey_bot", 30, 1000, 3600, 60000, repository, botSurveyCache,
+                new SimpleMeterRegistry());
+        try {
+            assertNull(node3.get(CHAT_ID));
+            assertTrue(node3.consumeExpired(CHAT_ID));
+            assertFalse(node3.consumeExpired(CHAT_ID));
+            assertEquals(0, node3.size());
+        } finally {
+            node3.shutdown();
+        }
+    }
+
+    @Test
+    void testGet_NearCacheHitSkipsSelect() {
+        PostgresBotSessionStore uncached = new PostgresBotSessionStore("survey_bot", 30, 1000, 3600, 0, repository, botSurveyCache,
+                new SimpleMeterRegistry());
+        try {
+            node1.put(session(0));
+            for (int i = 0; i < ROUNDS; i++) {
+                BotSurveySession session = node1.get(CHAT_ID);
+                session.setCurrentQuestionIndex(i % 10);
+                node1.save(session);
+            }
+            assertEquals(0, meterRegistry.get("bot.sessions.store").tag("operation", "load").timer().count());
+
+            for (int i = 0; i < ROUNDS; i++) {
+                BotSurveySession session = uncached.get(CHAT_ID);
+                session.setCurrentQuestionIndex(i % 10);
+                uncached.save(session);
+            }
+            assertEquals((ROUNDS - 1) % 10, uncached.get(CHAT_ID).getCurrentQuestionIndex());
+        } finally {
+            uncached.shutdown();
+        }
+    }
+
+    @Test
+    void testIsActive_NearCacheMissDoesNotLoadSurvey() {
+        node1.put(session(2));
+
+        assertTrue(node2.isActive(CHAT_ID));
+        assertFalse(node2.isActive(CHAT_ID + 1));
+        verify(botSurveyCache, never()).getSurvey(surveyGroupId);
+
+        node1.remove(CHAT_ID);
+        assertFalse(node1.isActive(CHAT_ID));
+    }
+
+    private BotSurveySession session(int questionIndex) {
+        BotSurveySession session = new BotSurveySession(CHAT_ID);
+        session.setUserId(USER_ID);
+        session.setBotSurvey(botSurvey);
+        session.setCurrentQuestionIndex(questionIndex);
+        return session;
+    }
+}
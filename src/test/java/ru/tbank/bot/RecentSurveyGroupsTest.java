@@ -0,0 +1,74 @@
+package ru.tbank.bot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.event.SurveyGroupChangedEvent;
+import ru.tbank.service.SurveyGroupService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecentSurveyGroupsTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private SurveyGroupService surveyGroupService;
+    private RecentSurveyGroups recentSurveyGroups;
+
+    @BeforeEach
+    void setUp() {
+        surveyGroupService = mock(SurveyGroupService.class);
+        recentSurveyGroups = new RecentSurveyGroups(surveyGroupService, 3);
+        when(surveyGroupService.getRecentSurveyGroups(3))
+                .thenReturn(List.of(group(3L, "третий", 3), group(2L, "второй", 2), group(1L, "первый", 1)));
+    }
+
+    @Test
+    void testGetSurveyGroupNames_LoadsOnce() {
+        assertEquals(List.of("третий", "второй", "первый"), recentSurveyGroups.getSurveyGroupNames());
+        assertEquals(List.of("третий", "второй", "первый"), recentSurveyGroups.getSurveyGroupNames());
+
+        verify(surveyGroupService, times(1)).getRecentSurveyGroups(3);
+    }
+
+    @Test
+    void testOnSurveyGroupChanged_CreatedGroupFirst() {
+        recentSurveyGroups.getSurveyGroupNames();
+        recentSurveyGroups.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.CREATED, group(4L, "четвертый", 4)));
+
+        assertEquals(List.of("четвертый", "третий", "второй"), recentSurveyGroups.getSurveyGroupNames());
+        verify(surveyGroupService, times(1)).getRecentSurveyGroups(3);
+    }
+
+    @Test
+    void testOnSurveyGroupChanged_UpdatedGroupRenamed() {
+        recentSurveyGroups.getSurveyGroupNames();
+        recentSurveyGroups.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.UPDATED, group(1L, "новый", 5), "первый"));
+
+        assertEquals(List.of("новый", "третий", "второй"), recentSurveyGroups.getSurveyGroupNames());
+    }
+
+    @Test
+    void testOnSurveyGroupChanged_DeletedGroupRefilled() {
+        recentSurveyGroups.getSurveyGroupNames();
+        when(surveyGroupService.getRecentSurveyGroups(3))
+                .thenReturn(List.of(group(3L, "третий", 3), group(1L, "первый", 1), group(0L, "нулевой", 0)));
+        recentSurveyGroups.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.DELETED, group(2L, "второй", 2)));
+
+        assertEquals(List.of("третий", "первый", "нулевой"), recentSurveyGroups.getSurveyGroupNames());
+    }
+
+    private static SurveyGroup group(Long surveyGroupId, String name, int minutes) {
+        SurveyGroup surveyGroup = new SurveyGroup();
+        surveyGroup.setSurveyGroupId(surveyGroupId);
+        surveyGroup.setSurveyGroupName(name);
+        surveyGroup.setInsertDt(NOW.plusMinutes(minutes));
+        return surveyGroup;
+    }
+}
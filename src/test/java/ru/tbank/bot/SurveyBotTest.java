@@ -0,0 +1,574 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageReplyMarkup;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.bots.AbsSender;
+import org.telegram.telegrambots.meta.api.objects.polls.Poll;
+import org.telegram.telegrambots.meta.api.objects.polls.PollAnswer;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import ru.tbank.bot.entity.BotPoll;
+import ru.tbank.bot.entity.BotSurvey;
+import ru.tbank.bot.entity.PreparedSendPoll;
+import ru.tbank.dto.ResultDTO;
+import ru.tbank.entity.Answer;
+import ru.tbank.entity.Survey;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.entity.SurveyType;
+import ru.tbank.repository.ResultRepository;
+import ru.tbank.service.ResultService;
+import ru.tbank.service.ResultWriteBuffer;
+import ru.tbank.service.SurveyGroupService;
+import ru.tbank.service.SurveyService;
+import ru.tbank.service.SurveyTypeService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SurveyBotTest {
+    private static final long CHAT_ID = 4101L;
+    private static final long USER_ID = 7L;
+    private static final long SURVEY_GROUP_ID = 1L;
+
+    private ResultRepository resultRepository;
+    private BotSurveyCache botSurveyCache;
+    private SurveyBot surveyBot;
+    private List<BotApiMethod<?>> sentMethods;
+    private BotSessionStore sessionStore;
+    private ResultWriteBuffer resultWriteBuffer;
+    private final AtomicLong ticker = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private ResultService resultService;
+    private BotUserCache botUserCache;
+    private UpdateDispatcher updateDispatcher;
+    private OutboundMessageQueue outboundMessageQueue;
+    private PollIndex pollIndex;
+    private SurveyGroupService surveyGroupService;
+    private SurveyNameIndex surveyNameIndex;
+    private SurveyGroupPages surveyGroupPages;
+    private TimeoutWheel timeoutWheel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        resultRepository = mock(ResultRepository.class);
+        resultService = new ResultService();
+        ReflectionTestUtils.setField(resultService, "resultRepository", resultRepository);
+
+        botUserCache = mock(BotUserCache.class);
+        when(botUserCache.getUserId(any(Chat.class))).thenReturn(USER_ID);
+
+        updateDispatcher = mock(UpdateDispatcher.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return null;
+        }).when(updateDispatcher).dispatch(anyLong(), any(Runnable.class));
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(1)).run();
+            return true;
+        }).when(updateDispatcher).tryDispatch(anyLong(), any(Runnable.class));
+        botSurveyCache = mock(BotSurveyCache.class);
+
+        sentMethods = new ArrayList<>();
+        outboundMessageQueue = mock(OutboundMessageQueue.class);
+        when(outboundMessageQueue.send(any(AbsSender.class), anyLong(), any(BotApiMethod.class))).thenAnswer(invocation -> {
+            BotApiMethod<?> method = invocation.getArgument(2);
+            sentMethods.add(method);
+            Message message = new Message();
+            message.setMessageId(sentMethods.size());
+            if (method instanceof PreparedSendPoll) {
+                Poll poll = new Poll();
+                poll.setId(((PreparedSendPoll) method).getQuestion());
+                message.setPoll(poll);
+            }
+            return CompletableFuture.completedFuture(message);
+        });
+
+        sessionStore = new InMemoryBotSessionStore("survey_bot", 30, 100, 60, 30, new BotSessionSnapshot("", 30, null), ticker::get, new SimpleMeterRegistry());
+
+        resultWriteBuffer = mock(ResultWriteBuffer.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        pollIndex = new PollIndex(1000, 24, new SimpleMeterRegistry());
+        surveyGroupService = mock(SurveyGroupService.class);
+        when(surveyGroupService.getAllSurveyGroups()).thenReturn(List.of(surveyGroup(SURVEY_GROUP_ID, "викторина"), surveyGroup(2L, "история")));
+        surveyNameIndex = new SurveyNameIndex(surveyGroupService, 3, 60);
+        surveyGroupPages = new SurveyGroupPages(surveyGroupService, 1, 60);
+        timeoutWheel = new TimeoutWheel(100, 1024, ticker::get, meterRegistry, false);
+        surveyBot = createBot("survey_bot", sessionStore);
+    }
+
+    private SurveyBot createBot(String name, BotSessionStore sessions) throws TelegramApiException {
+        return createBot(name, sessions, 0);
+    }
+
+    private SurveyBot createBot(String name, BotSessionStore sessions, int progressEditInterval) throws TelegramApiException {
+        return new SurveyBot(name, "token", "", 1, progressEditInterval, 2000, resultService, updateDispatcher, botSurveyCache, botUserCache,
+                mock(RecentSurveyGroups.class), surveyNameIndex, surveyGroupPages, outboundMessageQueue, sessions, resultWriteBuffer, pollIndex,
+                timeoutWheel, new UpdateAdmission(name, 20, 5, 5000, 4096, updateDispatcher, sessions, meterRegistry), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        surveyNameIndex.shutdown();
+        surveyGroupPages.shutdown();
+        sessionStore.shutdown();
+    }
+
+    @Test
+    void testResumeSurvey_ConstantQueriesForAnyGroupSize() throws Exception {
+        int queriesForShortGroup = countQueriesToFinishLastQuestion(5);
+        int queriesForLongGroup = countQueriesToFinishLastQuestion(30);
+
+        assertEquals(queriesForShortGroup, queriesForLongGroup, "Количество запросов не зависит от длины группы");
+        assertEquals(2, queriesForLongGroup, "Прогресс до и после ответа, ответ записывается через буфер");
+    }
+
+    @Test
+    void testResumeSurvey_SendsFirstUnansweredQuestion() throws Exception {
+        BotSurvey botSurvey = buildSurvey(5);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+        when(resultRepository.findSurveyIdsByUserIdAndSurveyGroupId(USER_ID, SURVEY_GROUP_ID)).thenReturn(Set.of(100L, 101L, 103L));
+
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        surveyBot.onUpdateReceived(pollAnswerUpdate());
+
+        List<String> sentQuestions = sentMethods.stream()
+                .filter(PreparedSendPoll.class::isInstance)
+                .map(sendPoll -> ((PreparedSendPoll) sendPoll).getQuestion())
+                .collect(Collectors.toList());
+        assertEquals(List.of("Вопрос 2", "Вопрос 4"), sentQuestions, "Пройденные вопросы пропущены");
+        verify(resultWriteBuffer, times(1)).submit(any(ResultDTO.class));
+    }
+
+    @Test
+    void testLateAnswer_SavedAgainstItsPoll() {
+        BotSurvey botSurvey = buildSurvey(5);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        surveyBot.onUpdateReceived(pollAnswerUpdate("Вопрос 0", 1));
+        surveyBot.onUpdateReceived(pollAnswerUpdate("Вопрос 0", 0));
+
+        ArgumentCaptor<ResultDTO> results = ArgumentCaptor.forClass(ResultDTO.class);
+        verify(resultWriteBuffer, times(2)).submit(results.capture());
+        assertEquals(List.of(100L, 100L), results.getAllValues().stream().map(ResultDTO::getSurveyId).collect(Collectors.toList()));
+        assertEquals(List.of("[1001]", "[1000]"), results.getAllValues().stream().map(ResultDTO::getUserResult).collect(Collectors.toList()));
+        List<String> sentQuestions = sentMethods.stream()
+                .filter(PreparedSendPoll.class::isInstance)
+                .map(sendPoll -> ((PreparedSendPoll) sendPoll).getQuestion())
+                .collect(Collectors.toList());
+        assertEquals(List.of("Вопрос 0", "Вопрос 1"), sentQuestions, "Поздний ответ не сдвигает опрос");
+    }
+
+    @Test
+    void testIdleSession_ExpiredNotice() {
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        ticker.addAndGet(TimeUnit.MINUTES.toNanos(31));
+        sessionStore.cleanUp();
+        sentMethods.clear();
+
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+
+        List<String> sentTexts = sentMethods.stream().map(method -> ((SendMessage) method).getText()).collect(Collectors.toList());
+        assertEquals(List.of("Сессия завершена из-за бездействия.", "Чтобы выбрать опрос, введите /start", "Чтобы выбрать опрос, введите /start"), sentTexts);
+        assertEquals(0, sessionStore.size());
+    }
+
+    @Test
+    void testPushSurvey_SkipsChatWithActiveSurvey() throws Exception {
+        BotSurvey botSurvey = buildSurvey(3);
+        when(resultRepository.findSurveyIdsByUserIdAndSurveyGroupId(USER_ID, SURVEY_GROUP_ID)).thenReturn(Set.of(100L));
+
+        Message pushed = surveyBot.pushSurvey(CHAT_ID, USER_ID, botSurvey).get();
+        Message skipped = surveyBot.pushSurvey(CHAT_ID, USER_ID, botSurvey).get();
+
+        assertEquals("Вопрос 1", pushed.getPoll().getId());
+        assertEquals(null, skipped, "Чат уже проходит опрос");
+        assertEquals(2, sentMethods.size());
+        assertEquals("Новый опрос «викторина»: вопрос 2 из 3. Для выхода из опроса введите /quit", ((SendMessage) sentMethods.get(0)).getText());
+        assertEquals(2, sessionStore.get(CHAT_ID).getCurrentQuestionIndex());
+    }
+
+    @Test
+    void testCompletedSurvey_GreetingEditedIntoResult() {
+        BotSurvey botSurvey = buildSurvey(3);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+        RecentSurveyGroups recentSurveyGroups = mock(RecentSurveyGroups.class);
+        when(recentSurveyGroups.getSurveyGroupNames()).thenReturn(List.of("викторина", "история"));
+        when(recentSurveyGroups.getCount()).thenReturn(2);
+        ReflectionTestUtils.setField(surveyBot, "recentSurveyGroups", recentSurveyGroups);
+
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        for (int i = 0; i < 3; i++) {
+            surveyBot.onUpdateReceived(pollAnswerUpdate("Вопрос " + i, 0));
+        }
+
+        List<SendMessage> messages = sentMethods.stream().filter(SendMessage.class::isInstance).map(SendMessage.class::cast).collect(Collectors.toList());
+        assertEquals(1, messages.size());
+        assertEquals("Введите название опроса, который хотите пройти, или выберите его из списка.\nПоследние 2 созданных опроса: викторина, история"
+                + "\nДля выхода из опроса введите /quit", messages.get(0).getText());
+        EditMessageText finished = (EditMessageText) sentMethods.get(sentMethods.size() - 1);
+        assertEquals(1, finished.getMessageId(), "Итог записывается в приветствие");
+        assertEquals("Опрос «викторина» завершён. Вы ответили на все вопросы. Спасибо за участие!\nЧтобы выбрать другой опрос, введите /start",
+                finished.getText());
+        assertEquals(5, sentMethods.size(), "Приветствие, три вопроса и итог");
+    }
+
+    @Test
+    void testProgressEditInterval_EditsProgressBeforeQuestions() throws Exception {
+        BotSurvey botSurvey = buildSurvey(3);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+        surveyBot = createBot("survey_bot", sessionStore, 1);
+
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        surveyBot.onUpdateReceived(pollAnswerUpdate("Вопрос 0", 0));
+        surveyBot.onUpdateReceived(pollAnswerUpdate("Вопрос 1", 0));
+
+        List<String> edits = sentMethods.stream().filter(EditMessageText.class::isInstance)
+                .map(method -> ((EditMessageText) method).getText()).collect(Collectors.toList());
+        assertEquals(List.of("Опрос «викторина»: вопрос 1 из 3. Для выхода из опроса введите /quit",
+                "Опрос «викторина»: вопрос 2 из 3. Для выхода из опроса введите /quit",
+                "Опрос «викторина»: вопрос 3 из 3. Для выхода из опроса введите /quit"), edits);
+        assertTrue(sentMethods.stream().filter(EditMessageText.class::isInstance).allMatch(edit -> ((EditMessageText) edit).getMessageId() == 1));
+    }
+
+    @Test
+    void testTimedQuestion_ExpiredQuestionRecordedAndSurveyAdvanced() {
+        BotSurvey botSurvey = buildSurvey(3, 30);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        assertEquals(30, botSurvey.getBotPolls().get(0).getOpenPeriod());
+        assertEquals(1, timeoutWheel.getPending());
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        timeoutWheel.expireDue();
+        verify(resultWriteBuffer, never()).submit(any(ResultDTO.class));
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        timeoutWheel.expireDue();
+        surveyBot.onUpdateReceived(pollAnswerUpdate("Вопрос 1", 0));
+
+        ArgumentCaptor<ResultDTO> results = ArgumentCaptor.forClass(ResultDTO.class);
+        verify(resultWriteBuffer, times(2)).submit(results.capture());
+        assertEquals(List.of("[]", "[1002]"), results.getAllValues().stream().map(ResultDTO::getUserResult).collect(Collectors.toList()));
+        List<String> sentQuestions = sentMethods.stream()
+                .filter(PreparedSendPoll.class::isInstance)
+                .map(sendPoll -> ((PreparedSendPoll) sendPoll).getQuestion())
+                .collect(Collectors.toList());
+        assertEquals(List.of("Вопрос 0", "Вопрос 1", "Вопрос 2"), sentQuestions);
+        assertEquals(1, timeoutWheel.getPending(), "Таймаут отвеченного вопроса отменен");
+        assertEquals(1, meterRegistry.get("bot.question-timeouts.recorded").counter().count());
+    }
+
+    @Test
+    void testTimedQuestion_FullShardRetriedOnNextTick() {
+        BotSurvey botSurvey = buildSurvey(2, 30);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        AtomicBoolean shardFull = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (shardFull.get()) {
+                return false;
+            }
+            ((Runnable) invocation.getArgument(1)).run();
+            return true;
+        }).when(updateDispatcher).tryDispatch(anyLong(), any(Runnable.class));
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(33));
+        timeoutWheel.expireDue();
+        verify(resultWriteBuffer, never()).submit(any(ResultDTO.class));
+        assertEquals(1, timeoutWheel.getPending(), "Истекший вопрос ждет следующего такта");
+
+        shardFull.set(false);
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        timeoutWheel.expireDue();
+
+        verify(resultWriteBuffer).submit(any(ResultDTO.class));
+        assertEquals("Вопрос 1", ((PreparedSendPoll) sentMethods.get(sentMethods.size() - 1)).getQuestion());
+    }
+
+    @Test
+    void testTimedQuestion_RestartedSurveyIgnoresStaleTimeout() {
+        BotSurvey botSurvey = buildSurvey(2, 30);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        surveyBot.onUpdateReceived(textUpdate("/quit"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        assertEquals(1, timeoutWheel.getPending(), "Таймаут прежней сессии отменен");
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(13));
+        timeoutWheel.expireDue();
+        surveyBot.onUpdateReceived(pollAnswerUpdate("Вопрос 0", 1));
+
+        ArgumentCaptor<ResultDTO> results = ArgumentCaptor.forClass(ResultDTO.class);
+        verify(resultWriteBuffer).submit(results.capture());
+        assertEquals("[1001]", results.getValue().getUserResult());
+        assertEquals("Вопрос 1", ((PreparedSendPoll) sentMethods.get(sentMethods.size() - 1)).getQuestion());
+    }
+
+    @Test
+    void testTimedQuestion_QueuedExpiryOfReplacedSessionIgnored() {
+        BotSurvey botSurvey = buildSurvey(2, 30);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        AtomicBoolean shardFull = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (shardFull.get()) {
+                return false;
+            }
+            ((Runnable) invocation.getArgument(1)).run();
+            return true;
+        }).when(updateDispatcher).tryDispatch(anyLong(), any(Runnable.class));
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(33));
+        timeoutWheel.expireDue();
+        surveyBot.onUpdateReceived(textUpdate("/quit"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        shardFull.set(false);
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        timeoutWheel.expireDue();
+
+        verify(resultWriteBuffer, never()).submit(any(ResultDTO.class));
+        assertEquals("Вопрос 0", ((PreparedSendPoll) sentMethods.get(sentMethods.size() - 1)).getQuestion());
+        assertEquals(0, meterRegistry.find("bot.question-timeouts.recorded").counters().stream().mapToDouble(c -> c.count()).sum());
+    }
+
+    @Test
+    void testSecondBot_SharesSurveyCacheWithIsolatedSessions() throws Exception {
+        BotSurvey botSurvey = buildSurvey(3);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+        BotSessionStore otherSessions = new InMemoryBotSessionStore("other_bot", 30, 100, 60, 30, new BotSessionSnapshot("", 30, null),
+                ticker::get, new SimpleMeterRegistry());
+        SurveyBot otherBot = createBot("other_bot", otherSessions);
+        try {
+            surveyBot.onUpdateReceived(textUpdate("/start"));
+            surveyBot.onUpdateReceived(textUpdate("викторина"));
+            otherBot.onUpdateReceived(textUpdate("/start"));
+
+            assertEquals(1, sessionStore.get(CHAT_ID).getCurrentQuestionIndex());
+            assertEquals(null, otherSessions.get(CHAT_ID).getBotSurvey(), "Сессия другого бота не видит выбранный опрос");
+
+            otherBot.onUpdateReceived(textUpdate("викторина"));
+            assertSame(sessionStore.get(CHAT_ID).getBotSurvey(), otherSessions.get(CHAT_ID).getBotSurvey(), "Опрос берется из общего кэша");
+            assertEquals(1, meterRegistry.get("bot.update").tags("bot", "other_bot", "command", "start").timer().count());
+        } finally {
+            otherSessions.shutdown();
+        }
+    }
+
+    @Test
+    void testUpdateTimer_TaggedByTypeAndCommand() {
+        BotSurvey botSurvey = buildSurvey(2);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        surveyBot.onUpdateReceived(pollAnswerUpdate("Вопрос 0", 0));
+
+        assertEquals(1, meterRegistry.get("bot.update").tags("bot", "survey_bot", "type", "text", "command", "start").timer().count());
+        assertEquals(1, meterRegistry.get("bot.update").tags("type", "text", "command", "none").timer().count());
+        assertEquals(1, meterRegistry.get("bot.update").tags("type", "poll_answer", "command", "none").timer().count());
+    }
+
+    @Test
+    void testUnknownSurveyName_SuggestsWithoutDatabase() {
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        sentMethods.clear();
+
+        surveyBot.onUpdateReceived(textUpdate("Викторна"));
+        surveyBot.onUpdateReceived(textUpdate("совсем другое"));
+
+        SendMessage suggestion = (SendMessage) sentMethods.get(0);
+        assertEquals("Такого опроса не существует. Возможно, вы имели в виду:", suggestion.getText());
+        ReplyKeyboardMarkup keyboard = (ReplyKeyboardMarkup) suggestion.getReplyMarkup();
+        assertEquals("викторина", keyboard.getKeyboard().get(0).get(0).getText());
+        assertEquals("Такого опроса не существут, выберите другой.\nЧтобы выбрать опрос, введите /start", ((SendMessage) sentMethods.get(1)).getText());
+        verify(botSurveyCache, never()).getSurvey(any());
+    }
+
+    @Test
+    void testSurveyLoadFailure_UserNotified() {
+        when(botSurveyCache.getSurvey("викторина")).thenThrow(new RuntimeException("Ошибка получения группы опросов по названию"));
+
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        sentMethods.clear();
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+
+        assertEquals("Не удалось начать опрос, попробуйте позже.\nЧтобы выбрать опрос, введите /start", ((SendMessage) sentMethods.get(0)).getText());
+    }
+
+    @Test
+    void testSurveyGroupPicker_PagesAndStartsByIdFromCache() {
+        BotSurvey botSurvey = buildSurvey(2);
+        when(botSurveyCache.getSurvey(SURVEY_GROUP_ID)).thenReturn(botSurvey);
+
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        InlineKeyboardMarkup firstPage = (InlineKeyboardMarkup) ((SendMessage) sentMethods.get(0)).getReplyMarkup();
+        assertEquals("викторина", firstPage.getKeyboard().get(0).get(0).getText());
+        assertEquals("page:1", firstPage.getKeyboard().get(1).get(0).getCallbackData());
+        sentMethods.clear();
+
+        surveyBot.onUpdateReceived(callbackUpdate("page:1"));
+        surveyBot.onUpdateReceived(callbackUpdate("group:" + SURVEY_GROUP_ID));
+
+        assertEquals(AnswerCallbackQuery.class, sentMethods.get(0).getClass());
+        InlineKeyboardMarkup secondPage = (InlineKeyboardMarkup) ((EditMessageReplyMarkup) sentMethods.get(1)).getReplyMarkup();
+        assertEquals("история", secondPage.getKeyboard().get(0).get(0).getText());
+        assertEquals("Вопрос 0", ((PreparedSendPoll) sentMethods.get(3)).getQuestion());
+        assertEquals(2, meterRegistry.get("bot.update").tags("type", "callback_query").timer().count());
+        verify(surveyGroupService, times(1)).getAllSurveyGroups();
+        verify(botSurveyCache, never()).getSurvey(anyString());
+    }
+
+    private int countQueriesToFinishLastQuestion(int questionsCount) throws Exception {
+        sessionStore.shutdown();
+        setUp();
+        BotSurvey botSurvey = buildSurvey(questionsCount);
+        when(botSurveyCache.getSurvey("викторина")).thenReturn(botSurvey);
+        Set<Long> passedSurveyIds = new HashSet<>();
+        for (int i = 0; i < questionsCount - 1; i++) {
+            passedSurveyIds.add(100L + i);
+        }
+        when(resultRepository.findSurveyIdsByUserIdAndSurveyGroupId(USER_ID, SURVEY_GROUP_ID))
+                .thenReturn(passedSurveyIds)
+                .thenReturn(botSurvey.getBotPolls().stream().map(BotPoll::getSurveyId).collect(Collectors.toSet()));
+
+        surveyBot.onUpdateReceived(textUpdate("/start"));
+        surveyBot.onUpdateReceived(textUpdate("викторина"));
+        surveyBot.onUpdateReceived(pollAnswerUpdate());
+
+        verify(resultWriteBuffer, times(1)).submit(any(ResultDTO.class));
+        return mockingDetails(resultRepository).getInvocations().size();
+    }
+
+    private BotSurvey buildSurvey(int questionsCount) {
+        return buildSurvey(questionsCount, null);
+    }
+
+    private BotSurvey buildSurvey(int questionsCount, Integer timeLimitSeconds) {
+        SurveyGroupService surveyGroupService = mock(SurveyGroupService.class);
+        SurveyService surveyService = mock(SurveyService.class);
+        SurveyTypeService surveyTypeService = mock(SurveyTypeService.class);
+        SurveyGroup surveyGroup = new SurveyGroup();
+        surveyGroup.setSurveyGroupId(SURVEY_GROUP_ID);
+        surveyGroup.setSurveyTypeId(1L);
+        surveyGroup.setTimeLimitSeconds(timeLimitSeconds);
+        List<Survey> surveys = new ArrayList<>();
+        for (int i = 0; i < questionsCount; i++) {
+            Survey survey = new Survey();
+            survey.setSurveyId(100L + i);
+            survey.setSurveyQuestion("Вопрос " + i);
+            survey.setAnswers(List.of(answer(1000L + 2 * i, "Да"), answer(1001L + 2 * i, "Нет")));
+            surveys.add(survey);
+        }
+        when(surveyGroupService.getSurveyGroupByName("викторина")).thenReturn(surveyGroup);
+        when(surveyService.getAllSurveysInGroupWithAnswers(SURVEY_GROUP_ID)).thenReturn(surveys);
+        when(surveyTypeService.getSurveyTypeById(1L)).thenReturn(new SurveyType());
+        return new BotSurvey.BotSurveyBuilder("викторина", surveyTypeService, surveyGroupService, surveyService).build();
+    }
+
+    private static SurveyGroup surveyGroup(Long surveyGroupId, String name) {
+        SurveyGroup surveyGroup = new SurveyGroup();
+        surveyGroup.setSurveyGroupId(surveyGroupId);
+        surveyGroup.setSurveyGroupName(name);
+        return surveyGroup;
+    }
+
+    private static Answer answer(Long answerId, String text) {
+        Answer answer = new Answer();
+        answer.setAnswerId(answerId);
+        answer.setAnswer(text);
+        answer.setCorrectFlg(false);
+        return answer;
+    }
+
+    private static Update textUpdate(String text) {
+        Chat chat = new Chat();
+        chat.setId(CHAT_ID);
+        chat.setType("private");
+        chat.setFirstName("Иван");
+        Message message = new Message();
+        message.setChat(chat);
+        message.setText(text);
+        Update update = new Update();
+        update.setMessage(message);
+        return update;
+    }
+
+    private static Update callbackUpdate(String data) {
+        Update update = textUpdate("Выберите опрос");
+        update.getMessage().setMessageId(10);
+        CallbackQuery callbackQuery = new CallbackQuery();
+        callbackQuery.setId("callback-" + data);
+        callbackQuery.setMessage(update.getMessage());
+        callbackQuery.setData(data);
+        update.setMessage(null);
+        update.setCallbackQuery(callbackQuery);
+        return update;
+    }
+
+    private static Update pollAnswerUpdate() {
+        return pollAnswerUpdate("1", 0);
+    }
+
+    private static Update pollAnswerUpdate(String pollId, int optionId) {
+        org.telegram.telegrambots.meta.api.objects.User user = new org.telegram.telegrambots.meta.api.objects.User();
+        user.setId(CHAT_ID);
+        user.setFirstName("Иван");
+        user.setIsBot(false);
+        PollAnswer pollAnswer = new PollAnswer();
+        pollAnswer.setPollId(pollId);
+        pollAnswer.setUser(user);
+        pollAnswer.setOptionIds(List.of(optionId));
+        Update update = new Update();
+        update.setPollAnswer(pollAnswer);
+        return update;
+    }
+}
@@ -0,0 +1,81 @@
+package ru.tbank.bot;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SurveyBotsTest {
+    @Test
+    void testGet_ByNameAndDefault() {
+        SurveyBot first = bot("first_bot");
+        SurveyBot second = bot("second_bot");
+        SurveyBots surveyBots = new SurveyBots(List.of(first, second));
+
+        assertSame(first, surveyBots.get(null));
+        assertSame(first, surveyBots.get(""));
+        assertSame(second, surveyBots.get("second_bot"));
+        assertEquals(2, surveyBots.size());
+        assertThrows(EntityNotFoundException.class, () -> surveyBots.get("unknown_bot"));
+    }
+
+    @Test
+    void testCreate_DuplicateName() {
+        assertThrows(IllegalArgumentException.class, () -> new SurveyBots(List.of(bot("survey_bot"), bot("survey_bot"))));
+        assertThrows(IllegalArgumentException.class, () -> new SurveyBots(List.of()));
+    }
+
+    @Test
+    void testShutdown_ClosesEveryBot() {
+        SurveyBot first = bot("first_bot");
+        SurveyBot second = bot("second_bot");
+
+        new SurveyBots(List.of(first, second)).shutdown();
+
+        verify(first).shutdown();
+        verify(second).shutdown();
+    }
+
+    @Test
+    void testTelegramBotsApi_WebhookRequiresSecretToken() throws Exception {
+        SurveyBot surveyBot = bot("survey_bot");
+        SurveyBots surveyBots = new SurveyBots(List.of(surveyBot));
+        BotConfig botConfig = new BotConfig();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> botConfig.telegramBotsApi(surveyBots, BotConfig.WEBHOOK_MODE, "https://example.org/api/v1/bot/webhook", ""));
+        assertThrows(IllegalArgumentException.class,
+                () -> botConfig.telegramBotsApi(surveyBots, BotConfig.WEBHOOK_MODE, "https://example.org/api/v1/bot/webhook", null));
+
+        verify(surveyBot, never()).execute(any(SetWebhook.class));
+    }
+
+    @Test
+    void testTelegramBotsApi_WebhookPassesSecretToken() throws Exception {
+        SurveyBot surveyBot = bot("survey_bot");
+
+        new BotConfig().telegramBotsApi(new SurveyBots(List.of(surveyBot)), BotConfig.WEBHOOK_MODE,
+                "https://example.org/api/v1/bot/webhook", "webhook-secret");
+
+        ArgumentCaptor<SetWebhook> captor = ArgumentCaptor.forClass(SetWebhook.class);
+        verify(surveyBot).execute(captor.capture());
+        assertEquals("webhook-secret", captor.getValue().getSecretToken());
+    }
+
+    private static SurveyBot bot(String name) {
+        SurveyBot bot = mock(SurveyBot.class);
+        when(bot.getBotUsername()).thenReturn(name);
+        return bot;
+    }
+}
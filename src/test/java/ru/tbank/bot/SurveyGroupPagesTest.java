@@ -0,0 +1,105 @@
+package ru.tbank.bot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.event.SurveyGroupChangedEvent;
+import ru.tbank.service.SurveyGroupService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SurveyGroupPagesTest {
+    private SurveyGroupService surveyGroupService;
+    private SurveyGroupPages surveyGroupPages;
+
+    @BeforeEach
+    void setUp() {
+        surveyGroupService = mock(SurveyGroupService.class);
+        when(surveyGroupService.getAllSurveyGroups()).thenReturn(List.of(
+                group(1L, "Викторина"), group(2L, "география"), group(3L, "история"), group(4L, "астрономия"), group(5L, "биология")));
+        surveyGroupPages = new SurveyGroupPages(surveyGroupService, 2, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        surveyGroupPages.shutdown();
+    }
+
+    @Test
+    void testGetPage_SortedByNameWithNavigation() {
+        assertEquals(3, surveyGroupPages.getPageCount());
+        assertEquals(List.of("астрономия", "биология", "Далее »"), texts(surveyGroupPages.getPage(0)));
+        assertEquals(List.of("Викторина", "география", "« Назад", "Далее »"), texts(surveyGroupPages.getPage(1)));
+        assertEquals(List.of("история", "« Назад"), texts(surveyGroupPages.getPage(2)));
+        assertEquals(List.of("group:1", "group:2", "page:0", "page:2"), callbacks(surveyGroupPages.getPage(1)));
+        assertNull(surveyGroupPages.getPage(3));
+
+        verify(surveyGroupService, times(1)).getAllSurveyGroups();
+    }
+
+    @Test
+    void testWarmUp_LoadsPagesBeforeFirstUpdate() {
+        surveyGroupPages.warmUp();
+        verify(surveyGroupService, times(1)).getAllSurveyGroups();
+
+        assertEquals(3, surveyGroupPages.getPageCount());
+        verify(surveyGroupService, times(1)).getAllSurveyGroups();
+    }
+
+    @Test
+    void testOnSurveyGroupChanged_RebuildsOnlyPagesAfterChange() {
+        InlineKeyboardMarkup firstPage = surveyGroupPages.getPage(0);
+        InlineKeyboardMarkup secondPage = surveyGroupPages.getPage(1);
+
+        surveyGroupPages.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.CREATED, group(6L, "экология")));
+
+        assertSame(firstPage, surveyGroupPages.getPage(0));
+        assertSame(secondPage, surveyGroupPages.getPage(1));
+        assertEquals(List.of("история", "экология", "« Назад"), texts(surveyGroupPages.getPage(2)));
+
+        surveyGroupPages.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.UPDATED, group(5L, "физика"), "биология"));
+
+        assertNotSame(firstPage, surveyGroupPages.getPage(0));
+        assertEquals(List.of("астрономия", "Викторина", "Далее »"), texts(surveyGroupPages.getPage(0)));
+        assertEquals(List.of("физика", "экология", "« Назад"), texts(surveyGroupPages.getPage(2)));
+        verify(surveyGroupService, times(1)).getAllSurveyGroups();
+    }
+
+    @Test
+    void testOnSurveyGroupChanged_DeletedGroupShrinksPages() {
+        surveyGroupPages.getPage(0);
+
+        surveyGroupPages.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.DELETED, group(3L, "история")));
+
+        assertEquals(2, surveyGroupPages.getPageCount());
+        assertEquals(List.of("Викторина", "география", "« Назад"), texts(surveyGroupPages.getPage(1)));
+    }
+
+    private static List<String> texts(InlineKeyboardMarkup keyboard) {
+        return keyboard.getKeyboard().stream().flatMap(List::stream).map(InlineKeyboardButton::getText).collect(Collectors.toList());
+    }
+
+    private static List<String> callbacks(InlineKeyboardMarkup keyboard) {
+        return keyboard.getKeyboard().stream().flatMap(List::stream).map(InlineKeyboardButton::getCallbackData).collect(Collectors.toList());
+    }
+
+    private static SurveyGroup group(long id, String name) {
+        SurveyGroup surveyGroup = new SurveyGroup();
+        surveyGroup.setSurveyGroupId(id);
+        surveyGroup.setSurveyGroupName(name);
+        return surveyGroup;
+    }
+}
@@ -0,0 +1,98 @@
+package ru.tbank.bot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.event.SurveyGroupChangedEvent;
+import ru.tbank.service.SurveyGroupService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SurveyNameIndexTest {
+    private SurveyGroupService surveyGroupService;
+    private SurveyNameIndex surveyNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        surveyGroupService = mock(SurveyGroupService.class);
+        when(surveyGroupService.getAllSurveyGroups()).thenReturn(List.of(
+                group(1L, "викторина"), group(2L, "викторина о кино"), group(3L, "история россии"),
+                group(4L, "ёлочные игрушки"), group(5L, "погода")));
+        surveyNameIndex = new SurveyNameIndex(surveyGroupService, 3, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        surveyNameIndex.shutdown();
+    }
+
+    @Test
+    void testFindName_Normalized() {
+        assertEquals("викторина о кино", surveyNameIndex.findName("  Викторина   О кино "));
+        assertEquals("ёлочные игрушки", surveyNameIndex.findName("елочные игрушки"));
+        assertNull(surveyNameIndex.findName("викторин"));
+        verify(surveyGroupService, times(1)).getAllSurveyGroups();
+    }
+
+    @Test
+    void testSuggest_PrefixFirstThenTypos() {
+        assertEquals(List.of("викторина", "викторина о кино"), surveyNameIndex.suggest("викт"));
+        assertEquals(List.of("история россии"), surveyNameIndex.suggest("истоия россии"));
+        assertEquals(List.of("погода"), surveyNameIndex.suggest("пгоода"));
+        assertEquals(List.of(), surveyNameIndex.suggest("совсем другое"));
+        verify(surveyGroupService, times(1)).getAllSurveyGroups();
+    }
+
+    @Test
+    void testWarmUp_LoadsIndexBeforeFirstUpdate() {
+        surveyNameIndex.warmUp();
+        verify(surveyGroupService, times(1)).getAllSurveyGroups();
+
+        assertEquals("погода", surveyNameIndex.findName("Погода"));
+        verify(surveyGroupService, times(1)).getAllSurveyGroups();
+    }
+
+    @Test
+    void testOnSurveyGroupChanged_KeepsIndexInSync() {
+        surveyNameIndex.findName("погода");
+        SurveyGroup renamed = group(5L, "прогноз погоды");
+        surveyNameIndex.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.UPDATED, renamed, "погода"));
+        surveyNameIndex.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.CREATED, group(6L, "кино")));
+        surveyNameIndex.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.DELETED, group(1L, "викторина")));
+
+        assertNull(surveyNameIndex.findName("погода"));
+        assertEquals("прогноз погоды", surveyNameIndex.findName("прогноз погоды"));
+        assertEquals("кино", surveyNameIndex.findName("кино"));
+        assertNull(surveyNameIndex.findName("викторина"));
+        assertEquals(5, surveyNameIndex.size());
+        verify(surveyGroupService, times(1)).getAllSurveyGroups();
+    }
+
+    @Test
+    void testSuggest_TyposAfterIndexGrows() {
+        assertEquals(List.of("погода"), surveyNameIndex.suggest("пгоода"));
+        for (long i = 10; i < 200; i++) {
+            surveyNameIndex.onSurveyGroupChanged(new SurveyGroupChangedEvent(SurveyGroupChangedEvent.ChangeType.CREATED, group(i, "опрос " + i)));
+        }
+
+        assertEquals("опрос 142", surveyNameIndex.suggest("опрс 142").get(0));
+        assertEquals(List.of("погода"), surveyNameIndex.suggest("пгоода"));
+        assertEquals(List.of("история россии"), surveyNameIndex.suggest("истоия россии"));
+        assertEquals(195, surveyNameIndex.size());
+    }
+
+    private static SurveyGroup group(Long surveyGroupId, String name) {
+        SurveyGroup surveyGroup = new SurveyGroup();
+        surveyGroup.setSurveyGroupId(surveyGroupId);
+        surveyGroup.setSurveyGroupName(name);
+        return surveyGroup;
+    }
+}
@@ -0,0 +1,115 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeoutWheelTest {
+    private final AtomicLong ticker = new AtomicLong();
+    private final List<String> fired = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private TimeoutWheel timeoutWheel;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        timeoutWheel = new TimeoutWheel(100, 8, ticker::get, meterRegistry, false);
+    }
+
+    @Test
+    void testExpireDue_FiresOnlyAfterDeadline() {
+        timeoutWheel.schedule(250, () -> fired.add("a"));
+        timeoutWheel.schedule(500, () -> fired.add("b"));
+
+        advanceMillis(200);
+        assertEquals(List.of(), fired);
+
+        advanceMillis(100);
+        assertEquals(List.of("a"), fired);
+
+        advanceMillis(200);
+        assertEquals(List.of("a", "b"), fired);
+        assertEquals(0, timeoutWheel.getPending());
+        assertEquals(2, meterRegistry.get("bot.question-timeouts.expired").counter().count());
+    }
+
+    @Test
+    void testCancel_RemovesFromBucket() {
+        TimeoutWheel.Timeout first = timeoutWheel.schedule(300, () -> fired.add("a"));
+        timeoutWheel.schedule(300, () -> fired.add("b"));
+        TimeoutWheel.Timeout third = timeoutWheel.schedule(300, () -> fired.add("c"));
+
+        assertTrue(first.cancel());
+        assertTrue(third.cancel());
+        assertFalse(first.cancel(), "Повторная отмена ничего не делает");
+        assertEquals(1, timeoutWheel.getPending());
+
+        advanceMillis(300);
+        assertEquals(List.of("b"), fired);
+        assertFalse(third.cancel());
+    }
+
+    @Test
+    void testSchedule_DeadlineBeyondOneRotation() {
+        timeoutWheel.schedule(2000, () -> fired.add("a"));
+
+        for (int i = 0; i < 19; i++) {
+            advanceMillis(100);
+        }
+        assertEquals(List.of(), fired, "Корзина пройдена раньше срока, таймаут остается на следующий оборот");
+
+        advanceMillis(100);
+        assertEquals(List.of("a"), fired);
+    }
+
+    @Test
+    void testExpireDue_LaggingWorkerFiresEverythingDue() {
+        for (int i = 1; i <= 20; i++) {
+            String name = String.valueOf(i);
+            timeoutWheel.schedule(i * 100L, () -> fired.add(name));
+        }
+        timeoutWheel.schedule(5000, () -> fired.add("late"));
+
+        advanceMillis(3000);
+
+        assertEquals(20, fired.size());
+        assertEquals(1, timeoutWheel.getPending());
+    }
+
+    @Test
+    void testExpireDue_TaskFailureDoesNotStopOthers() {
+        timeoutWheel.schedule(100, () -> {
+            throw new IllegalStateException("ошибка");
+        });
+        timeoutWheel.schedule(100, () -> fired.add("b"));
+
+        advanceMillis(100);
+
+        assertEquals(List.of("b"), fired);
+    }
+
+    @Test
+    void testSchedule_ZeroDelayFromTaskFiresOnNextTick() {
+        timeoutWheel.schedule(100, () -> timeoutWheel.schedule(0, () -> fired.add("retry")));
+
+        advanceMillis(100);
+        assertEquals(List.of(), fired, "Повтор не выполняется в том же такте");
+
+        advanceMillis(100);
+        assertEquals(List.of("retry"), fired);
+    }
+
+    private void advanceMillis(long millis) {
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+        timeoutWheel.expireDue();
+    }
+}
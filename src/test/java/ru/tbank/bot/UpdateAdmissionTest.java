@@ -0,0 +1,129 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+import org.telegram.telegrambots.meta.api.objects.polls.PollAnswer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UpdateAdmissionTest {
+    private static final long CHAT_ID = 42L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UpdateDispatcher updateDispatcher;
+    private BotSessionStore sessions;
+    private UpdateAdmission updateAdmission;
+
+    @BeforeEach
+    void setUp() {
+        updateDispatcher = mock(UpdateDispatcher.class);
+        sessions = mock(BotSessionStore.class);
+        updateAdmission = new UpdateAdmission("survey_bot", 2, 5, 1000, 128, updateDispatcher, sessions, meterRegistry);
+    }
+
+    @Test
+    void testAdmit_FoldsDuplicateStart() {
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID, textUpdate("/start")));
+        assertEquals(UpdateAdmission.Decision.DROP, updateAdmission.admit(CHAT_ID, textUpdate("/start")));
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID + 1, textUpdate("/start")));
+
+        assertEquals(1.0, meterRegistry.get("bot.admission.shed").tag("reason", "duplicate_start").counter().count());
+    }
+
+    @Test
+    void testAdmit_PerChatCap() {
+        when(sessions.isActive(CHAT_ID)).thenReturn(true);
+
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID, textUpdate("первый")));
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID, textUpdate("второй")));
+        assertEquals(UpdateAdmission.Decision.DROP, updateAdmission.admit(CHAT_ID, textUpdate("третий")));
+        updateAdmission.release(CHAT_ID);
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID, textUpdate("третий")));
+
+        assertEquals(1.0, meterRegistry.get("bot.admission.shed").tag("reason", "chat_cap").counter().count());
+    }
+
+    @Test
+    void testAdmit_OverloadShedsOnlyNewSessions() {
+        when(updateDispatcher.getOldestQueueAgeMillis()).thenReturn(5000L);
+        when(sessions.isActive(CHAT_ID)).thenReturn(true);
+
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID, textUpdate("ответ")));
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID, pollAnswerUpdate()));
+        assertEquals(UpdateAdmission.Decision.BUSY, updateAdmission.admit(CHAT_ID + 1, textUpdate("/start")));
+        assertEquals(UpdateAdmission.Decision.DROP, updateAdmission.admit(CHAT_ID + 1, textUpdate("/start")), "Сообщение о перегрузке не повторяется");
+
+        when(updateDispatcher.getOldestQueueAgeMillis()).thenReturn(0L);
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID + 1, textUpdate("/start")), "Отклоненный /start не считается повтором");
+        assertEquals(2.0, meterRegistry.get("bot.admission.shed").tag("reason", "overload").counter().count());
+    }
+
+    @Test
+    void testAdmit_DropsRedeliveredUpdateBeforeSessionLookup() {
+        Update answer = textUpdate("ответ");
+        answer.setUpdateId(500);
+        Update start = textUpdate("/start");
+        start.setUpdateId(501);
+
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID, answer));
+        updateAdmission.release(CHAT_ID);
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID, start));
+        updateAdmission.release(CHAT_ID);
+        assertEquals(UpdateAdmission.Decision.DROP, updateAdmission.admit(CHAT_ID, answer));
+        assertEquals(UpdateAdmission.Decision.DROP, updateAdmission.admit(CHAT_ID, start));
+
+        verify(sessions, never()).isActive(CHAT_ID);
+        assertEquals(2.0, meterRegistry.get("bot.admission.shed").tag("reason", "duplicate_update").counter().count());
+        assertEquals(0.0, meterRegistry.get("bot.admission.shed").tag("reason", "duplicate_start").counter().count());
+    }
+
+    @Test
+    void testAdmit_SessionLookedUpOnlyUnderOverload() {
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID, textUpdate("ответ")));
+        updateAdmission.release(CHAT_ID);
+        verify(sessions, never()).isActive(CHAT_ID);
+
+        when(updateDispatcher.getOldestQueueAgeMillis()).thenReturn(5000L);
+        when(sessions.isActive(CHAT_ID)).thenReturn(true);
+        assertEquals(UpdateAdmission.Decision.ADMIT, updateAdmission.admit(CHAT_ID, textUpdate("ответ")));
+        verify(sessions, times(1)).isActive(CHAT_ID);
+    }
+
+    private static Update textUpdate(String text) {
+        Chat chat = new Chat();
+        chat.setId(CHAT_ID);
+        chat.setType("private");
+        Message message = new Message();
+        message.setChat(chat);
+        message.setText(text);
+        Update update = new Update();
+        update.setMessage(message);
+        return update;
+    }
+
+    private static Update pollAnswerUpdate() {
+        User user = new User();
+        user.setId(CHAT_ID);
+        user.setFirstName("Иван");
+        user.setIsBot(false);
+        PollAnswer pollAnswer = new PollAnswer();
+        pollAnswer.setPollId("1");
+        pollAnswer.setUser(user);
+        pollAnswer.setOptionIds(List.of(0));
+        Update update = new Update();
+        update.setPollAnswer(pollAnswer);
+        return update;
+    }
+}
@@ -0,0 +1,127 @@
+package ru.tbank.bot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpdateDispatcherTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UpdateDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testDispatch_KeepsOrderWithinChat() throws InterruptedException {
+        dispatcher = new UpdateDispatcher(4, 100, meterRegistry);
+        List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1000);
+        for (int i = 0; i < 1000; i++) {
+            int order = i;
+            dispatcher.dispatch(42L, () -> {
+                handled.add(order);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, handled.get(i));
+        }
+    }
+
+    @Test
+    void testDispatch_SlowChatDoesNotBlockOtherChats() throws InterruptedException {
+        dispatcher = new UpdateDispatcher(4, 100, meterRegistry);
+        long slowChat = 1L;
+        long fastChat = 2L;
+        assertNotEquals(dispatcher.shardIndex(slowChat), dispatcher.shardIndex(fastChat));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastHandled = new CountDownLatch(1);
+
+        dispatcher.dispatch(slowChat, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.dispatch(slowChat, () -> {
+        });
+        dispatcher.dispatch(fastChat, fastHandled::countDown);
+
+        assertTrue(fastHandled.await(5, TimeUnit.SECONDS));
+        assertEquals(1, dispatcher.getQueueDepths()[dispatcher.shardIndex(slowChat)]);
+        assertEquals(1.0, meterRegistry.get("bot.dispatcher.queue.depth")
+                .tag("shard", String.valueOf(dispatcher.shardIndex(slowChat))).gauge().value());
+        release.countDown();
+    }
+
+    @Test
+    void testDispatch_FailedUpdateDoesNotStopShard() throws InterruptedException {
+        dispatcher = new UpdateDispatcher(1, 10, meterRegistry);
+        CountDownLatch handled = new CountDownLatch(1);
+
+        dispatcher.dispatch(7L, () -> {
+            throw new IllegalStateException("Ошибка");
+        });
+        dispatcher.dispatch(7L, handled::countDown);
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testGetOldestQueueAgeMillis_GrowsWhileShardBlocked() throws InterruptedException {
+        dispatcher = new UpdateDispatcher(1, 10, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.dispatch(7L, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        dispatcher.dispatch(7L, () -> {
+        });
+
+        Thread.sleep(100);
+        assertTrue(dispatcher.getOldestQueueAgeMillis() >= 100);
+        release.countDown();
+    }
+
+    @Test
+    void testTryDispatch_FullShardReturnsWithoutBlocking() throws InterruptedException {
+        dispatcher = new UpdateDispatcher(1, 1, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.dispatch(7L, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(dispatcher.tryDispatch(7L, () -> {
+        }));
+        assertFalse(dispatcher.tryDispatch(7L, () -> {
+        }), "Очередь шарда заполнена");
+        assertEquals(1, dispatcher.getQueueDepths()[0]);
+        release.countDown();
+    }
+}
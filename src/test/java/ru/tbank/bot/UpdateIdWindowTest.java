@@ -0,0 +1,59 @@
+package ru.tbank.bot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpdateIdWindowTest {
+
+    @Test
+    void testRecord_DuplicatesInsideWindow() {
+        UpdateIdWindow window = new UpdateIdWindow(100);
+
+        assertEquals(128, window.getSize(), "Окно округляется до целого числа слов");
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(1000));
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(1002));
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(1001), "Обновление, пришедшее не по порядку, принимается");
+        assertEquals(UpdateIdWindow.Result.DUPLICATE, window.record(1000));
+        assertEquals(UpdateIdWindow.Result.DUPLICATE, window.record(1001));
+        assertEquals(UpdateIdWindow.Result.DUPLICATE, window.record(1002));
+    }
+
+    @Test
+    void testRecord_SlidingReusesSlots() {
+        UpdateIdWindow window = new UpdateIdWindow(64);
+        for (long updateId = 1; updateId <= 64; updateId++) {
+            window.record(updateId);
+        }
+
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(70));
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(66), "Слот освобожден при сдвиге окна");
+        assertEquals(UpdateIdWindow.Result.DUPLICATE, window.record(64));
+    }
+
+    @Test
+    void testRecord_LargeJumpClearsWindow() {
+        UpdateIdWindow window = new UpdateIdWindow(64);
+        window.record(10);
+        window.record(11);
+
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(10 + 64 * 5));
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(11 + 64 * 5 - 2));
+        assertEquals(UpdateIdWindow.Result.DUPLICATE, window.record(10 + 64 * 5));
+    }
+
+    @Test
+    void testRecord_LowerIdAfterGapReanchorsWindow() {
+        UpdateIdWindow window = new UpdateIdWindow(64);
+        for (long updateId = 500_000; updateId < 500_010; updateId++) {
+            window.record(updateId);
+        }
+
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(1234), "Телеграм начал нумерацию заново после простоя");
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(1235));
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(1233));
+        assertEquals(UpdateIdWindow.Result.DUPLICATE, window.record(1234));
+        assertEquals(UpdateIdWindow.Result.DUPLICATE, window.record(1235));
+        assertEquals(UpdateIdWindow.Result.NEW, window.record(1236));
+    }
+}
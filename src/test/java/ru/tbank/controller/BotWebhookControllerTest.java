@@ -0,0 +1,116 @@
+package ru.tbank.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import ru.tbank.bot.SurveyBot;
+import ru.tbank.bot.SurveyBots;
+import ru.tbank.exception.ErrorHandlingControllerAdvice;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BotWebhookControllerTest {
+    private static final String SECRET = "webhook-secret";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SurveyBot surveyBot;
+    private SurveyBot otherBot;
+    private MockMvc mockMvc;
+    private List<String> recordedUpdates;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        surveyBot = mock(SurveyBot.class);
+        when(surveyBot.getBotUsername()).thenReturn("survey_bot");
+        otherBot = mock(SurveyBot.class);
+        when(otherBot.getBotUsername()).thenReturn("other_bot");
+        mockMvc = MockMvcBuilders.standaloneSetup(new BotWebhookController(new SurveyBots(List.of(surveyBot, otherBot)), SECRET))
+                .setControllerAdvice(new ErrorHandlingControllerAdvice())
+                .build();
+        try (InputStream in = getClass().getResourceAsStream("/bot/recorded-updates.json")) {
+            recordedUpdates = new ArrayList<>();
+            for (JsonNode node : objectMapper.readTree(in)) {
+                recordedUpdates.add(objectMapper.writeValueAsString(node));
+            }
+        }
+    }
+
+    @Test
+    void testWebhook_OK() throws Exception {
+        for (String update : recordedUpdates) {
+            mockMvc.perform(post("/api/v1/bot/webhook")
+                            .header(BotWebhookController.SECRET_TOKEN_HEADER, SECRET)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(update))
+                    .andExpect(status().isOk());
+        }
+
+        verify(surveyBot, times(recordedUpdates.size())).onUpdateReceived(any(Update.class));
+    }
+
+    @Test
+    void testWebhook_BotName() throws Exception {
+        mockMvc.perform(post("/api/v1/bot/webhook/other_bot")
+                        .header(BotWebhookController.SECRET_TOKEN_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recordedUpdates.get(0)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/bot/webhook/unknown_bot")
+                        .header(BotWebhookController.SECRET_TOKEN_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recordedUpdates.get(0)))
+                .andExpect(status().isNotFound());
+
+        verify(otherBot).onUpdateReceived(any(Update.class));
+        verify(surveyBot, never()).onUpdateReceived(any(Update.class));
+    }
+
+    @Test
+    void testWebhook_WrongSecret() throws Exception {
+        mockMvc.perform(post("/api/v1/bot/webhook")
+                        .header(BotWebhookController.SECRET_TOKEN_HEADER, "wrong")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recordedUpdates.get(0)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/v1/bot/webhook")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recordedUpdates.get(0)))
+                .andExpect(status().isForbidden());
+
+        verify(surveyBot, never()).onUpdateReceived(any(Update.class));
+    }
+
+    @Test
+    void testWebhook_NoSecretConfigured() throws Exception {
+        MockMvc withoutSecret = MockMvcBuilders.standaloneSetup(new BotWebhookController(new SurveyBots(List.of(surveyBot)), ""))
+                .build();
+
+        withoutSecret.perform(post("/api/v1/bot/webhook")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recordedUpdates.get(0)))
+                .andExpect(status().isForbidden());
+        withoutSecret.perform(post("/api/v1/bot/webhook")
+                        .header(BotWebhookController.SECRET_TOKEN_HEADER, "")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recordedUpdates.get(0)))
+                .andExpect(status().isForbidden());
+
+        verify(surveyBot, never()).onUpdateReceived(any(Update.class));
+    }
+}
@@ -0,0 +1,94 @@
+package ru.tbank.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import ru.tbank.bot.SurveyBot;
+import ru.tbank.bot.SurveyBots;
+import ru.tbank.configuration.SecurityConfiguration;
+import ru.tbank.service.AuthenticationService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BotWebhookController.class, properties = {
+        "telegram-bot.mode=webhook",
+        "telegram-bot.webhook.secret-token=" + BotWebhookSecurityTest.SECRET})
+@Import(SecurityConfiguration.class)
+class BotWebhookSecurityTest {
+    static final String SECRET = "webhook-secret";
+    private static final String UPDATE = "{\"update_id\":1,\"message\":{\"message_id\":1,\"date\":0,"
+            + "\"chat\":{\"id\":1,\"type\":\"private\"},\"text\":\"/start\"}}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SurveyBots surveyBots;
+
+    @MockBean
+    private AuthenticationService authenticationService;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    private SurveyBot surveyBot;
+
+    @BeforeEach
+    void setUp() {
+        surveyBot = mock(SurveyBot.class);
+        when(surveyBots.get(any())).thenReturn(surveyBot);
+    }
+
+    @Test
+    void testWebhook_PermittedWithoutAuthentication() throws Exception {
+        mockMvc.perform(post("/api/v1/bot/webhook")
+                        .header(BotWebhookController.SECRET_TOKEN_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testWebhook_BotNamePermittedWithoutAuthentication() throws Exception {
+        mockMvc.perform(post("/api/v1/bot/webhook/other_bot")
+                        .header(BotWebhookController.SECRET_TOKEN_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(UPDATE))
+                .andExpect(status().isOk());
+
+        verify(surveyBots).get("other_bot");
+        verify(surveyBot).onUpdateReceived(any(Update.class));
+    }
+
+    @Test
+    void testApi_RequiresAuthentication() throws Exception {
+        when(authenticationService.isTokenValid(anyString())).thenReturn(false);
+
+        mockMvc.perform(post("/api/v1/survey-group")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testPrometheus_RequiresAuthentication() throws Exception {
+        when(authenticationService.isTokenValid(anyString())).thenReturn(false);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+}
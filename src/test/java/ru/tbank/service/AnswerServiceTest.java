@@ -14,10 +14,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.jpa.domain.Specification;
 import ru.tbank.entity.Answer;
 import ru.tbank.entity.Survey;
+import ru.tbank.event.SurveyChangedEvent;
 import ru.tbank.exception.EntityAlreadyExistsException;
 import ru.tbank.repository.AnswerRepository;
 
@@ -31,6 +33,8 @@ import java.util.List;
 public class AnswerServiceTest {
     @Mock
     private AnswerRepository answerRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private AnswerService answerService;
 
@@ -97,6 +101,7 @@ public class AnswerServiceTest {
                 () -> Assertions.assertNotNull(answerResult, "Ответ добавлен"),
                 () -> Assertions.assertEquals(answer.getAnswer(), answerResult.getAnswer(), "Добавляемые и добавленный совпадают")
         );
+        verify(eventPublisher, times(1)).publishEvent(any(SurveyChangedEvent.class));
     }
 
     @Test
@@ -132,6 +137,7 @@ public class AnswerServiceTest {
 
         Assertions.assertTrue(result, "Ответ был удален");
         verify(answerRepository, times(1)).deleteById(answer.getAnswerId());
+        verify(eventPublisher, times(1)).publishEvent(any(SurveyChangedEvent.class));
     }
 
     @Test
@@ -0,0 +1,97 @@
+package ru.tbank.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.tbank.dto.CampaignDTO;
+import ru.tbank.entity.Campaign;
+import ru.tbank.entity.SurveyGroup;
+import ru.tbank.repository.CampaignRepository;
+import ru.tbank.repository.UserRepository;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CampaignServiceTest {
+    @Mock
+    private CampaignRepository campaignRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private SurveyGroupService surveyGroupService;
+    @InjectMocks
+    private CampaignService campaignService;
+
+    private SurveyGroup surveyGroup;
+    private CampaignDTO campaignDTO;
+
+    @BeforeEach
+    void setUp() {
+        surveyGroup = new SurveyGroup();
+        surveyGroup.setSurveyGroupId(1L);
+        surveyGroup.setSurveyGroupName("example");
+        campaignDTO = new CampaignDTO();
+        campaignDTO.setSurveyGroupName("example");
+    }
+
+    @Test
+    void testCreateCampaign_OK() {
+        campaignDTO.setExcludePassed(true);
+        when(surveyGroupService.getSurveyGroupByName("example")).thenReturn(surveyGroup);
+        when(userRepository.countTgRecipients(eq(true), any(LocalDateTime.class), eq(true), eq(1L))).thenReturn(500000L);
+        when(campaignRepository.save(any(Campaign.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Campaign campaign = campaignService.createCampaign(campaignDTO);
+
+        Assertions.assertEquals(Campaign.CampaignStatus.RUNNING, campaign.getStatus());
+        Assertions.assertEquals(500000L, campaign.getTotalCount());
+        Assertions.assertEquals(0L, campaign.getLastUserId());
+        Assertions.assertTrue(campaign.isExcludePassedFlg());
+    }
+
+    @Test
+    void testCreateCampaign_EmptyName() {
+        campaignDTO.setSurveyGroupName(" ");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> campaignService.createCampaign(campaignDTO));
+    }
+
+    @Test
+    void testCreateCampaign_GroupNotFound() {
+        when(surveyGroupService.getSurveyGroupByName("example")).thenThrow(new EntityNotFoundException("Группа опросов с таким названием не найдена"));
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> campaignService.createCampaign(campaignDTO));
+    }
+
+    @Test
+    void testGetCampaignById_NotFound() {
+        when(campaignRepository.findByCampaignId(1L)).thenReturn(null);
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> campaignService.getCampaignById(1L));
+    }
+
+    @Test
+    void testGetNextRecipients_AfterCheckpoint() {
+        LocalDateTime registeredAfter = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Campaign campaign = new Campaign();
+        campaign.setSurveyGroupId(1L);
+        campaign.setRegisteredAfter(registeredAfter);
+        campaign.setLastUserId(42L);
+        when(userRepository.findTgRecipients(42L, false, registeredAfter, false, 1L, PageRequest.of(0, 500))).thenReturn(List.of());
+
+        Assertions.assertTrue(campaignService.getNextRecipients(campaign, 500).isEmpty());
+        verify(userRepository).findTgRecipients(42L, false, registeredAfter, false, 1L, PageRequest.of(0, 500));
+    }
+}
@@ -23,6 +23,8 @@ import ru.tbank.repository.ResultRepository;
 import javax.persistence.EntityNotFoundException;
 import javax.ws.rs.BadRequestException;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
 @ExtendWith(MockitoExtension.class)
 public class ResultServiceTest {
@@ -101,6 +103,22 @@ public class ResultServiceTest {
         Assertions.assertThrows(EntityAlreadyExistsException.class, () -> resultService.createResult(resultDTO), "Результат опроса юзера уже существует");
     }
 
+    @Test
+    void testCreateResults_OK() {
+        when(resultRepository.insertIgnoringDuplicates(any())).thenReturn(1);
+        int inserted = resultService.createResults(List.of(resultDTO, resultDTO));
+
+        Assertions.assertEquals(1, inserted, "Повторный результат пропущен ограничением уникальности");
+        verify(resultRepository, times(0)).existsByUserIdAndSurveyId(anyLong(), anyLong());
+    }
+
+    @Test
+    void testCreateResults_DataIntegrityViolationException() {
+        when(resultRepository.insertIgnoringDuplicates(any())).thenThrow(new DataIntegrityViolationException("Ошибка"));
+
+        Assertions.assertThrows(BadRequestException.class, () -> resultService.createResults(List.of(resultDTO)), "Ошибка вставки данных");
+    }
+
     @Test
     void testUpdateResult_OK() {
         when(resultRepository.existsByResultId(anyLong())).thenReturn(true);
@@ -263,4 +281,21 @@ public class ResultServiceTest {
         RuntimeException thrown = Assertions.assertThrows(RuntimeException.class, () -> resultService.checkResultExists(resultDTO));
         Assertions.assertEquals("Ошибка проверки результата опроса: Неизвестная ошибка", thrown.getMessage());
     }
+
+    @Test
+    void testGetPassedSurveyIdsInGroup_OK() {
+        when(resultRepository.findSurveyIdsByUserIdAndSurveyGroupId(1L, 2L)).thenReturn(Set.of(1L, 3L));
+        Set<Long> passedSurveyIds = resultService.getPassedSurveyIdsInGroup(1L, 2L);
+
+        Assertions.assertEquals(Set.of(1L, 3L), passedSurveyIds, "Получены все пройденные опросы группы");
+        verify(resultRepository, times(1)).findSurveyIdsByUserIdAndSurveyGroupId(1L, 2L);
+    }
+
+    @Test
+    void testGetPassedSurveyIdsInGroup_UnknownError() {
+        when(resultRepository.findSurveyIdsByUserIdAndSurveyGroupId(1L, 2L)).thenThrow(new RuntimeException("Неизвестная ошибка"));
+
+        RuntimeException thrown = Assertions.assertThrows(RuntimeException.class, () -> resultService.getPassedSurveyIdsInGroup(1L, 2L));
+        Assertions.assertEquals("Ошибка получения пройденных опросов группы: Неизвестная ошибка", thrown.getMessage());
+    }
 }
@@ -0,0 +1,181 @@
+package ru.tbank.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.tbank.dto.ResultDTO;
+
+import javax.ws.rs.BadRequestException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResultWriteBufferTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private ResultWriteBuffer resultWriteBuffer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        resultWriteBuffer.shutdown();
+    }
+
+    @Test
+    void testSubmit_FlushesFullBatch() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        ResultService resultService = resultService(flushed);
+        resultWriteBuffer = new ResultWriteBuffer(resultService, 1000, 100, 60_000, 1000, meterRegistry);
+
+        for (long i = 0; i < 100; i++) {
+            resultWriteBuffer.submit(new ResultDTO(1L, i, "[1]"));
+        }
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(100), batchSizes);
+    }
+
+    @Test
+    void testSubmit_FlushesByInterval() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        resultWriteBuffer = new ResultWriteBuffer(resultService(flushed), 1000, 100, 50, 1000, meterRegistry);
+
+        resultWriteBuffer.submit(new ResultDTO(1L, 1L, "[1]"));
+        resultWriteBuffer.submit(new ResultDTO(1L, 2L, "[1]"));
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2), batchSizes);
+    }
+
+    @Test
+    void testShutdown_FlushesPending() throws InterruptedException {
+        resultWriteBuffer = new ResultWriteBuffer(resultService(new CountDownLatch(1)), 1000, 100, 60_000, 1000, meterRegistry);
+        for (long i = 0; i < 250; i++) {
+            resultWriteBuffer.submit(new ResultDTO(1L, i, "[1]"));
+        }
+
+        resultWriteBuffer.shutdown();
+
+        assertEquals(250, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(0, resultWriteBuffer.size());
+    }
+
+    @Test
+    void testSubmit_DuringShutdownIsNotLost() throws InterruptedException {
+        resultWriteBuffer = new ResultWriteBuffer(resultService(new CountDownLatch(1)), 1000, 100, 60_000, 1000, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1000);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread handler = new Thread(() -> {
+            try {
+                for (long i = 0; i < 10_000; i++) {
+                    resultWriteBuffer.submit(new ResultDTO(1L, i, "[1]"));
+                    started.countDown();
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        handler.start();
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        resultWriteBuffer.shutdown();
+        handler.join();
+
+        assertNull(failure.get());
+        assertEquals(10_000, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(0, resultWriteBuffer.size());
+    }
+
+    @Test
+    void testSubmit_WritesDirectlyAfterShutdown() throws InterruptedException {
+        resultWriteBuffer = new ResultWriteBuffer(resultService(new CountDownLatch(1)), 1000, 100, 60_000, 1000, meterRegistry);
+        resultWriteBuffer.shutdown();
+
+        resultWriteBuffer.submit(new ResultDTO(1L, 1L, "[1]"));
+
+        assertEquals(List.of(1), batchSizes);
+        assertEquals(0, resultWriteBuffer.size());
+    }
+
+    @Test
+    void testSubmit_WritesDirectlyWhenFull() {
+        resultWriteBuffer = new ResultWriteBuffer(resultService(new CountDownLatch(1)), 1, 100, 60_000, 10, meterRegistry);
+
+        resultWriteBuffer.submit(new ResultDTO(1L, 1L, "[1]"));
+        resultWriteBuffer.submit(new ResultDTO(1L, 2L, "[1]"));
+
+        assertEquals(List.of(1), batchSizes);
+        assertEquals(1, resultWriteBuffer.size());
+    }
+
+    @Test
+    void testFlush_DataErrorDropsOnlyFailingRow() {
+        ResultService resultService = mock(ResultService.class);
+        List<Long> written = Collections.synchronizedList(new ArrayList<>());
+        when(resultService.createResults(anyList())).thenAnswer(invocation -> {
+            List<ResultDTO> results = invocation.getArgument(0);
+            if (results.stream().anyMatch(result -> result.getSurveyId() == 3L)) {
+                throw new BadRequestException("Ошибка в данных запроса: violates foreign key constraint \"fk_results_on_surveys\"");
+            }
+            results.forEach(result -> written.add(result.getSurveyId()));
+            return results.size();
+        });
+        resultWriteBuffer = new ResultWriteBuffer(resultService, 1000, 100, 60_000, 1000, meterRegistry);
+        for (long i = 1; i <= 5; i++) {
+            resultWriteBuffer.submit(new ResultDTO(1L, i, "[1]"));
+        }
+
+        resultWriteBuffer.flush();
+        resultWriteBuffer.submit(new ResultDTO(1L, 6L, "[1]"));
+        resultWriteBuffer.flush();
+
+        assertEquals(List.of(1L, 2L, 4L, 5L, 6L), written);
+        assertEquals(1, meterRegistry.get("results.write-behind.rows").tag("outcome", "dropped").counter().count());
+        assertEquals(5, meterRegistry.get("results.write-behind.rows").tag("outcome", "inserted").counter().count());
+    }
+
+    @Test
+    void testFlush_TransientErrorRetriesBatch() {
+        ResultService resultService = mock(ResultService.class);
+        AtomicBoolean available = new AtomicBoolean(false);
+        when(resultService.createResults(anyList())).thenAnswer(invocation -> {
+            if (!available.get()) {
+                throw new RuntimeException("Ошибка пакетного добавления результатов: connection refused");
+            }
+            int size = invocation.<List<ResultDTO>>getArgument(0).size();
+            batchSizes.add(size);
+            return size;
+        });
+        resultWriteBuffer = new ResultWriteBuffer(resultService, 1000, 100, 60_000, 1000, meterRegistry);
+        resultWriteBuffer.submit(new ResultDTO(1L, 1L, "[1]"));
+        resultWriteBuffer.submit(new ResultDTO(1L, 2L, "[1]"));
+
+        resultWriteBuffer.flush();
+        available.set(true);
+        resultWriteBuffer.flush();
+
+        assertEquals(List.of(2), batchSizes);
+        assertEquals(0, meterRegistry.get("results.write-behind.rows").tag("outcome", "dropped").counter().count());
+    }
+
+    private ResultService resultService(CountDownLatch flushed) {
+        ResultService resultService = mock(ResultService.class);
+        when(resultService.createResults(anyList())).thenAnswer(invocation -> {
+            int size = invocation.<List<ResultDTO>>getArgument(0).size();
+            batchSizes.add(size);
+            flushed.countDown();
+            return size;
+        });
+        return resultService;
+    }
+}
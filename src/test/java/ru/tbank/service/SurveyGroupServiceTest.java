@@ -4,6 +4,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -15,13 +16,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import javax.persistence.EntityNotFoundException;
 import javax.ws.rs.BadRequestException;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import ru.tbank.dto.SurveyGroupDTO;
 import ru.tbank.entity.SurveyGroup;
+import ru.tbank.event.SurveyGroupChangedEvent;
 import ru.tbank.exception.EntityAlreadyExistsException;
 import ru.tbank.repository.SurveyGroupRepository;
 
@@ -33,6 +37,8 @@ import java.util.List;
 public class SurveyGroupServiceTest {
     @Mock
     private SurveyGroupRepository surveyGroupRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private SurveyGroupService surveyGroupService;
 
@@ -69,6 +75,29 @@ public class SurveyGroupServiceTest {
         Assertions.assertThrows(EntityNotFoundException.class, () -> surveyGroupService.getAllSurveyGroups(), "Пустой список групп запросов");
     }
 
+    @Test
+    void testGetRecentSurveyGroups_OK() {
+        when(surveyGroupRepository.findRecent(PageRequest.of(0, 3))).thenReturn(List.of(surveyGroup));
+        List<SurveyGroup> result = surveyGroupService.getRecentSurveyGroups(3);
+
+        Assertions.assertEquals(List.of(surveyGroup), result, "Последние группы получены одним запросом с ограничением");
+        verify(surveyGroupRepository, times(0)).findAll();
+    }
+
+    @Test
+    void testGetSurveyGroupById_OK() {
+        when(surveyGroupRepository.findBySurveyGroupId(1L)).thenReturn(surveyGroup);
+
+        Assertions.assertEquals(surveyGroup, surveyGroupService.getSurveyGroupById(1L), "Группа найдена по ид");
+    }
+
+    @Test
+    void testGetSurveyGroupById_NotFound() {
+        when(surveyGroupRepository.findBySurveyGroupId(anyLong())).thenReturn(null);
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> surveyGroupService.getSurveyGroupById(2L), "Группа с таким ид не существует");
+    }
+
     @Test
     void testGetSurveyGroupByName_OK() {
         when(surveyGroupRepository.findBySurveyGroupName(anyString())).thenReturn(surveyGroup);
@@ -97,6 +126,7 @@ public class SurveyGroupServiceTest {
                 () -> Assertions.assertNotNull(surveyGroupResult, "Результат не пуст"),
                 () -> Assertions.assertEquals(surveyGroup.getSurveyGroupName(), surveyGroupResult.getSurveyGroupName(), "У созанной группы верное наименование")
         );
+        verify(eventPublisher, times(1)).publishEvent(any(SurveyGroupChangedEvent.class));
     }
 
     @Test
@@ -106,6 +136,14 @@ public class SurveyGroupServiceTest {
         Assertions.assertThrows(IllegalArgumentException.class, () -> surveyGroupService.createSurveyGroup(surveyGroupDTO), "Ошиба создания группы с пустым наименованием");
     }
 
+    @Test
+    void testCreateSurveyGroup_TimeLimitOutOfRange() {
+        surveyGroupDTO.setTimeLimitSeconds(601);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> surveyGroupService.createSurveyGroup(surveyGroupDTO), "Ограничение времени больше допустимого в Telegram");
+        verify(surveyGroupRepository, never()).save(any(SurveyGroup.class));
+    }
+
     @Test
     void testCreateSurveyGroup_AlreadyExists() {
         when(surveyGroupRepository.existsBySurveyGroupName(anyString())).thenReturn(true);
@@ -124,6 +162,7 @@ public class SurveyGroupServiceTest {
                 () -> Assertions.assertNotNull(surveyGroupResult, "Результат не пуст"),
                 () -> Assertions.assertEquals(surveyGroup.getSurveyGroupName(), surveyGroupResult.getSurveyGroupName(), "Проверка наименования у измененной группы")
         );
+        verify(eventPublisher, times(1)).publishEvent(any(SurveyGroupChangedEvent.class));
     }
 
     @Test
@@ -149,6 +188,7 @@ public class SurveyGroupServiceTest {
 
         Assertions.assertTrue(result);
         verify(surveyGroupRepository, times(1)).deleteById(surveyGroup.getSurveyGroupId());
+        verify(eventPublisher, times(1)).publishEvent(any(SurveyGroupChangedEvent.class));
     }
 
     @Test
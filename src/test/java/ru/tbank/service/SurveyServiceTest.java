@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import javax.persistence.EntityNotFoundException;
 import javax.ws.rs.BadRequestException;
@@ -21,6 +22,7 @@ import javax.ws.rs.BadRequestException;
 import org.springframework.dao.DataIntegrityViolationException;
 import ru.tbank.dto.SurveyDTO;
 import ru.tbank.entity.Survey;
+import ru.tbank.event.SurveyChangedEvent;
 import ru.tbank.repository.SurveyGroupRepository;
 import ru.tbank.repository.SurveyRepository;
 
@@ -35,6 +37,8 @@ public class SurveyServiceTest {
     private SurveyRepository surveyRepository;
     @Mock
     private SurveyGroupRepository surveyGroupRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private SurveyService surveyService;
 
@@ -125,6 +129,7 @@ public class SurveyServiceTest {
                 () -> Assertions.assertNotNull(surveyResult, "Опрос был создан"),
                 () -> Assertions.assertEquals(survey.getSurveyQuestion(), surveyResult.getSurveyQuestion(), "Вопрос создаваемого опроса и созданного совпадают")
         );
+        verify(eventPublisher, times(1)).publishEvent(any(SurveyChangedEvent.class));
     }
 
     @Test
@@ -170,6 +175,7 @@ public class SurveyServiceTest {
 
         Assertions.assertTrue(result, "Опрос удален");
         verify(surveyRepository, times(1)).deleteById(surveyId);
+        verify(eventPublisher, times(1)).publishEvent(any(SurveyChangedEvent.class));
     }
 
     @Test
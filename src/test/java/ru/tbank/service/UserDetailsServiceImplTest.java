@@ -14,10 +14,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import ru.tbank.dto.UserCreateDTO;
 import ru.tbank.entity.User;
+import ru.tbank.event.UserDeletedEvent;
 import ru.tbank.repository.UserRepository;
 
 import javax.persistence.EntityNotFoundException;
@@ -31,6 +33,8 @@ import java.util.List;
 public class UserDetailsServiceImplTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private UserDetailsServiceImpl userDetailsService;
 
@@ -105,6 +109,26 @@ public class UserDetailsServiceImplTest {
         Assertions.assertEquals("Ошибка в данных запроса: error", thrown.getMessage(), "Ошибка в запросе");
     }
 
+    @Test
+    void testGetOrCreateTgUserId_OK() {
+        UserCreateDTO userCreateDTO = new UserCreateDTO("4101", "First", "Last", "tgUsername");
+        when(userRepository.upsertTgUser("4101", "First", "Last", "tgUsername")).thenReturn(7L);
+        Long userId = userDetailsService.getOrCreateTgUserId(userCreateDTO);
+
+        Assertions.assertEquals(7L, userId, "Ид пользователя получен одним запросом");
+        verify(userRepository, times(0)).findByUsername(anyString());
+    }
+
+    @Test
+    void testGetOrCreateTgUserId_EmptyUsername() {
+        UserCreateDTO userCreateDTO = new UserCreateDTO("", "First", "Last", "tgUsername");
+
+        IllegalArgumentException thrown = Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            userDetailsService.getOrCreateTgUserId(userCreateDTO);
+        });
+        Assertions.assertEquals("Имя пользователя должно быть не пусто", thrown.getMessage(), "Получение ид пользователя с пустым именем");
+    }
+
     @Test
     void testDeleteUser_OK() {
         String username = "existingUser";
@@ -114,6 +138,7 @@ public class UserDetailsServiceImplTest {
 
         Assertions.assertTrue(isDeleted, "Пользователь успешно удален");
         verify(userRepository, times(1)).deleteById(user.getUserId());
+        verify(eventPublisher, times(1)).publishEvent(any(UserDeletedEvent.class));
     }
 
     @Test